@@ -1,16 +1,25 @@
 package bstmap;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
+
+public class BSTMap<K extends Comparable<K>, V> implements OrderedMap61B<K, V> {
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
 
-public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V>{
     private Node root;
+    private final boolean balanced;
     private class Node {
         K key;
         V value;
         Node left; // left children
         Node right; // right children
         private int size; // number of nodes in subtree
+        private boolean color; // color of the link from the parent; only used when balanced
 
         Node(K key, V value, int size) {
             this.key = key;
@@ -18,11 +27,147 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V>{
             this.left = null;
             this.right = null;
             this.size = size;
+            this.color = RED;
         }
     }
 
     public BSTMap() {
+        this(false);
+    }
+
+    /** Creates an empty map. If balanced is true, the tree is kept as a
+     * left-leaning red-black tree, so put and get are O(log n) even when
+     * keys arrive in sorted order. */
+    public BSTMap(boolean balanced) {
+        this.balanced = balanced;
+    }
+
+    /** Builds a map from keys in strictly ascending order and their values,
+     * in O(n) time and without comparing any keys. */
+    public static <K extends Comparable<K>, V> BSTMap<K, V> fromSorted(Iterator<K> keys, Iterator<V> values) {
+        return fromSorted(keys, values, false);
+    }
+
+    /** Like fromSorted(keys, values), but the map is in balanced mode if balanced is true. */
+    public static <K extends Comparable<K>, V> BSTMap<K, V> fromSorted(Iterator<K> keys, Iterator<V> values,
+                                                                        boolean balanced) {
+        BSTMap<K, V> map = new BSTMap<>(balanced);
+        map.putAllSorted(keys, values);
+        return map;
+    }
+
+    /** Puts every key with its value, where keys come in strictly ascending
+     * order. The tree is rebuilt perfectly balanced in O(n + m) time, where m
+     * is the current size; keys are only compared to merge with existing
+     * entries. Existing values are replaced for keys already in the map. */
+    public void putAllSorted(Iterator<K> keys, Iterator<V> values) {
+        ArrayList<K> newKeys = new ArrayList<>();
+        ArrayList<V> newValues = new ArrayList<>();
+        while (keys.hasNext()) {
+            if (!values.hasNext()) {
+                throw new IllegalArgumentException("putAllSorted() has fewer values than keys");
+            }
+            K key = keys.next();
+            if (key == null) throw new IllegalArgumentException("calls putAllSorted() with a null key");
+            assert newKeys.isEmpty() || newKeys.get(newKeys.size() - 1).compareTo(key) < 0
+                    : "putAllSorted() keys are not in strictly ascending order";
+            newKeys.add(key);
+            newValues.add(values.next());
+        }
+        if (root != null) {
+            mergeExisting(newKeys, newValues);
+        }
+        root = build(newKeys, newValues, 0, newKeys.size());
+        if (root != null) root.color = BLACK;
+    }
 
+    /* Merges the current entries into the sorted lists, new values winning. */
+    private void mergeExisting(ArrayList<K> newKeys, ArrayList<V> newValues) {
+        ArrayList<K> mergedKeys = new ArrayList<>(size() + newKeys.size());
+        ArrayList<V> mergedValues = new ArrayList<>(size() + newKeys.size());
+        int i = 0;
+        InOrderIterator nodes = new InOrderIterator(null, null);
+        while (nodes.hasNext()) {
+            Node node = nodes.nextNode();
+            K key = node.key;
+            while (i < newKeys.size() && newKeys.get(i).compareTo(key) < 0) {
+                mergedKeys.add(newKeys.get(i));
+                mergedValues.add(newValues.get(i));
+                i += 1;
+            }
+            if (i < newKeys.size() && newKeys.get(i).compareTo(key) == 0) {
+                mergedKeys.add(newKeys.get(i));
+                mergedValues.add(newValues.get(i));
+                i += 1;
+            }
+            else {
+                mergedKeys.add(key);
+                mergedValues.add(node.value);
+            }
+        }
+        while (i < newKeys.size()) {
+            mergedKeys.add(newKeys.get(i));
+            mergedValues.add(newValues.get(i));
+            i += 1;
+        }
+        newKeys.clear();
+        newKeys.addAll(mergedKeys);
+        newValues.clear();
+        newValues.addAll(mergedValues);
+    }
+
+    /* Builds a tree from the sorted entries [lo, lo + n). */
+    private Node build(ArrayList<K> keys, ArrayList<V> values, int lo, int n) {
+        if (!balanced) {
+            return buildPerfect(keys, values, lo, n);
+        }
+        int blackHeight = 0;
+        while ((2 << blackHeight) - 1 <= n) {
+            blackHeight += 1;
+        }
+        return buildRedBlack(keys, values, lo, n, blackHeight);
+    }
+
+    /* Splits at the median, so every subtree's halves differ in size by at most one. */
+    private Node buildPerfect(ArrayList<K> keys, ArrayList<V> values, int lo, int n) {
+        if (n == 0) return null;
+        int mid = lo + n / 2;
+        Node x = new Node(keys.get(mid), values.get(mid), n);
+        x.left = buildPerfect(keys, values, lo, mid - lo);
+        x.right = buildPerfect(keys, values, mid + 1, lo + n - mid - 1);
+        return x;
+    }
+
+    /* Builds a valid left-leaning red-black tree of n entries with the given
+     * black height, which needs 2^h - 1 <= n <= 3^h - 1. Viewed as a 2-3 tree,
+     * the root is a 2-node if its two subtrees can hold n - 1 entries and a
+     * 3-node (a black node with a red left child) otherwise. */
+    private Node buildRedBlack(ArrayList<K> keys, ArrayList<V> values, int lo, int n, int blackHeight) {
+        if (n == 0) return null;
+        int maxChild = 1;
+        for (int i = 1; i < blackHeight; i++) {
+            maxChild *= 3;
+        }
+        maxChild -= 1; // 3^(h - 1) - 1, the most a subtree one black level down can hold
+        if (n - 1 <= 2 * maxChild) {
+            int a = n / 2;
+            Node x = new Node(keys.get(lo + a), values.get(lo + a), n);
+            x.color = BLACK;
+            x.left = buildRedBlack(keys, values, lo, a, blackHeight - 1);
+            x.right = buildRedBlack(keys, values, lo + a + 1, n - 1 - a, blackHeight - 1);
+            return x;
+        }
+        int a = (n - 2) / 3;
+        int b = (n - 2 - a) / 2;
+        int c = n - 2 - a - b;
+        Node red = new Node(keys.get(lo + a), values.get(lo + a), a + b + 1);
+        red.left = buildRedBlack(keys, values, lo, a, blackHeight - 1);
+        red.right = buildRedBlack(keys, values, lo + a + 1, b, blackHeight - 1);
+        Node x = new Node(keys.get(lo + a + b + 1), values.get(lo + a + b + 1), n);
+        x.color = BLACK;
+        x.left = red;
+        x.right = buildRedBlack(keys, values, lo + a + b + 2, c, blackHeight - 1);
+        return x;
     }
 
     /** Removes all the mappings from this map. */
@@ -90,47 +235,418 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V>{
     /* Associates the specified value with the specified key in this map. */
     public void put(K key, V value) {
         if (key == null) throw new IllegalArgumentException("calls put() with a null key");
-        root = put(root, key, value);
+        if (balanced) {
+            root = putBalanced(root, key, value);
+            root.color = BLACK;
+        } else {
+            root = put(root, key, value);
+        }
     }
 
+    /* Plain BST insertion. Iterative, so a degenerate tree cannot overflow the stack. */
     private Node put(Node x, K key, V value) {
+        if (x == null) return new Node(key, value, 1);
+        Node existing = find(key);
+        if (existing != null) {
+            existing.value = value;
+            return x;
+        }
+        Node parent = null;
+        int cmp = 0;
+        for (Node cur = x; cur != null; cur = cmp < 0 ? cur.left : cur.right) {
+            cur.size += 1;
+            parent = cur;
+            cmp = key.compareTo(cur.key);
+        }
+        if (cmp < 0) {
+            parent.left = new Node(key, value, 1);
+        }
+        else {
+            parent.right = new Node(key, value, 1);
+        }
+        return x;
+    }
+
+    /* Returns the node holding key, or null. */
+    private Node find(K key) {
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x;
+            }
+            x = cmp < 0 ? x.left : x.right;
+        }
+        return null;
+    }
+
+    /* Left-leaning red-black insertion (Sedgewick, Algorithms 4th ed., 3.3). */
+    private Node putBalanced(Node x, K key, V value) {
         if (x == null) return new Node(key, value, 1);
         int cmp = key.compareTo(x.key);
         if (cmp < 0) {
-            x.left = put(x.left, key, value);
+            x.left = putBalanced(x.left, key, value);
         }
-        else if (cmp > 0){
-            x.right = put(x.right, key, value);
+        else if (cmp > 0) {
+            x.right = putBalanced(x.right, key, value);
         }
         else {
             x.value = value;
         }
+        if (isRed(x.right) && !isRed(x.left)) x = rotateLeft(x);
+        if (isRed(x.left) && isRed(x.left.left)) x = rotateRight(x);
+        if (isRed(x.left) && isRed(x.right)) flipColors(x);
         x.size = 1 + size(x.left) + size(x.right);
         return x;
     }
 
-    /* Returns a Set view of the keys contained in this map. Not required for Lab 7.
-     * If you don't implement this, throw an UnsupportedOperationException. */
+    private boolean isRed(Node x) {
+        return x != null && x.color == RED;
+    }
+
+    private Node rotateLeft(Node h) {
+        Node x = h.right;
+        h.right = x.left;
+        x.left = h;
+        x.color = h.color;
+        h.color = RED;
+        x.size = h.size;
+        h.size = 1 + size(h.left) + size(h.right);
+        return x;
+    }
+
+    private Node rotateRight(Node h) {
+        Node x = h.left;
+        h.left = x.right;
+        x.right = h;
+        x.color = h.color;
+        h.color = RED;
+        x.size = h.size;
+        h.size = 1 + size(h.left) + size(h.right);
+        return x;
+    }
+
+    private void flipColors(Node h) {
+        h.color = !h.color;
+        h.left.color = !h.left.color;
+        h.right.color = !h.right.color;
+    }
+
+    /* Returns the smallest key, or null if the map is empty. */
+    @Override
+    public K min() {
+        if (root == null) return null;
+        Node x = root;
+        while (x.left != null) {
+            x = x.left;
+        }
+        return x.key;
+    }
+
+    /* Returns the largest key, or null if the map is empty. */
+    @Override
+    public K max() {
+        if (root == null) return null;
+        Node x = root;
+        while (x.right != null) {
+            x = x.right;
+        }
+        return x.key;
+    }
+
+    /* Returns the largest key less than or equal to key, or null if there is none. */
+    @Override
+    public K floor(K key) {
+        if (key == null) throw new IllegalArgumentException("calls floor() with a null key");
+        Node x = root;
+        K best = null;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x.key;
+            }
+            else if (cmp < 0) {
+                x = x.left;
+            }
+            else {
+                best = x.key;
+                x = x.right;
+            }
+        }
+        return best;
+    }
+
+    /* Returns the smallest key greater than or equal to key, or null if there is none. */
+    @Override
+    public K ceiling(K key) {
+        if (key == null) throw new IllegalArgumentException("calls ceiling() with a null key");
+        Node x = root;
+        K best = null;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x.key;
+            }
+            else if (cmp > 0) {
+                x = x.right;
+            }
+            else {
+                best = x.key;
+                x = x.left;
+            }
+        }
+        return best;
+    }
+
+    /* Returns the number of keys strictly less than key. */
+    @Override
+    public int rank(K key) {
+        if (key == null) throw new IllegalArgumentException("calls rank() with a null key");
+        Node x = root;
+        int rank = 0;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp < 0) {
+                x = x.left;
+            }
+            else if (cmp > 0) {
+                rank += 1 + size(x.left);
+                x = x.right;
+            }
+            else {
+                return rank + size(x.left);
+            }
+        }
+        return rank;
+    }
+
+    /* Returns the key with the given rank. */
+    @Override
+    public K select(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IllegalArgumentException("argument to select() is invalid: " + rank);
+        }
+        Node x = root;
+        while (true) {
+            int leftSize = size(x.left);
+            if (rank < leftSize) {
+                x = x.left;
+            }
+            else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                x = x.right;
+            }
+            else {
+                return x.key;
+            }
+        }
+    }
+
+    /* Returns the keys between lo and hi, inclusive, in ascending order.
+     * Runs in O(log n + k) for k keys, holding only one root-to-leaf path. */
+    @Override
+    public Iterable<K> range(K lo, K hi) {
+        if (lo == null) throw new IllegalArgumentException("first argument to range() is null");
+        if (hi == null) throw new IllegalArgumentException("second argument to range() is null");
+        return () -> new InOrderIterator(lo, hi);
+    }
+
+    /* In-order iterator over [lo, hi], where a null bound means unbounded.
+     * The stack holds the nodes whose key and right subtree are still to be
+     * visited, smallest on top. It is an ArrayDeque, whose array only grows
+     * when the tree is deeper than any path seen so far, so next() does not
+     * allocate. */
+    private class InOrderIterator implements Iterator<K> {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>(32);
+        private final K hi;
+
+        InOrderIterator(K lo, K hi) {
+            this.hi = hi;
+            Node x = root;
+            while (x != null) {
+                if (lo != null && x.key.compareTo(lo) < 0) {
+                    x = x.right;
+                }
+                else {
+                    stack.push(x);
+                    x = x.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().key.compareTo(hi) <= 0);
+        }
+
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+
+        /* Returns the next node itself, for callers that want its value too. */
+        Node nextNode() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node n = stack.pop();
+            for (Node x = n.right; x != null; x = x.left) {
+                stack.push(x);
+            }
+            return n;
+        }
+    }
+
+    /* Returns a Set of the keys contained in this map, in ascending order. */
     public Set<K> keySet(){
-        throw new UnsupportedOperationException("Not implemented yet");
+        Set<K> keys = new TreeSet<>();
+        for (K key : this) {
+            keys.add(key);
+        }
+        return keys;
     }
 
-    /* Removes the mapping for the specified key from this map if present.
-     * Not required for Lab 7. If you don't implement this, throw an
-     * UnsupportedOperationException. */
+    /* Removes the mapping for the specified key from this map if present. */
     public V remove(K key){
-        throw new UnsupportedOperationException("Not implemented yet");
+        if (key == null) throw new IllegalArgumentException("calls remove() with a null key");
+        Node x = find(key);
+        if (x == null) {
+            return null;
+        }
+        V value = x.value;
+        if (balanced) {
+            if (!isRed(root.left) && !isRed(root.right)) root.color = RED;
+            root = removeBalanced(root, key);
+            if (root != null) root.color = BLACK;
+        } else {
+            removeHibbard(key);
+        }
+        return value;
     }
 
     /* Removes the entry for the specified key only if it is currently mapped to
-     * the specified value. Not required for Lab 7. If you don't implement this,
-     * throw an UnsupportedOperationException.*/
+     * the specified value. */
     public V remove(K key, V value){
-        throw new UnsupportedOperationException("Not implemented yet");
+        if (key == null) throw new IllegalArgumentException("calls remove() with a null key");
+        Node x = find(key);
+        if (x == null || (x.value == null ? value != null : !x.value.equals(value))) {
+            return null;
+        }
+        return remove(key);
+    }
+
+    /* Hibbard deletion, done iteratively. key must be in the map. */
+    private void removeHibbard(K key) {
+        Node parent = null;
+        Node x = root;
+        int cmp = key.compareTo(x.key);
+        while (cmp != 0) {
+            x.size -= 1; // every node above x loses one descendant
+            parent = x;
+            x = cmp < 0 ? x.left : x.right;
+            cmp = key.compareTo(x.key);
+        }
+
+        Node replacement;
+        if (x.left == null) {
+            replacement = x.right;
+        }
+        else if (x.right == null) {
+            replacement = x.left;
+        }
+        else {
+            // Replace x by its successor, the smallest key in its right subtree.
+            Node successorParent = x;
+            Node successor = x.right;
+            while (successor.left != null) {
+                successor.size -= 1;
+                successorParent = successor;
+                successor = successor.left;
+            }
+            if (successorParent != x) {
+                successorParent.left = successor.right;
+                successor.right = x.right;
+            }
+            successor.left = x.left;
+            successor.size = x.size - 1;
+            replacement = successor;
+        }
+
+        if (parent == null) {
+            root = replacement;
+        }
+        else if (parent.left == x) {
+            parent.left = replacement;
+        }
+        else {
+            parent.right = replacement;
+        }
+    }
+
+    /* Left-leaning red-black deletion (Sedgewick, Algorithms 4th ed., 3.3).
+     * key must be in the subtree rooted at h. Recursion depth is O(log n). */
+    private Node removeBalanced(Node h, K key) {
+        if (key.compareTo(h.key) < 0) {
+            if (!isRed(h.left) && !isRed(h.left.left)) h = moveRedLeft(h);
+            h.left = removeBalanced(h.left, key);
+        }
+        else {
+            if (isRed(h.left)) h = rotateRight(h);
+            if (key.compareTo(h.key) == 0 && (h.right == null)) return null;
+            if (!isRed(h.right) && !isRed(h.right.left)) h = moveRedRight(h);
+            if (key.compareTo(h.key) == 0) {
+                Node x = h.right;
+                while (x.left != null) {
+                    x = x.left;
+                }
+                h.key = x.key;
+                h.value = x.value;
+                h.right = removeMinBalanced(h.right);
+            }
+            else {
+                h.right = removeBalanced(h.right, key);
+            }
+        }
+        return balance(h);
+    }
+
+    private Node removeMinBalanced(Node h) {
+        if (h.left == null) return null;
+        if (!isRed(h.left) && !isRed(h.left.left)) h = moveRedLeft(h);
+        h.left = removeMinBalanced(h.left);
+        return balance(h);
+    }
+
+    private Node moveRedLeft(Node h) {
+        flipColors(h);
+        if (isRed(h.right.left)) {
+            h.right = rotateRight(h.right);
+            h = rotateLeft(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    private Node moveRedRight(Node h) {
+        flipColors(h);
+        if (isRed(h.left.left)) {
+            h = rotateRight(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    private Node balance(Node h) {
+        if (isRed(h.right) && !isRed(h.left)) h = rotateLeft(h);
+        if (isRed(h.left) && isRed(h.left.left)) h = rotateRight(h);
+        if (isRed(h.left) && isRed(h.right)) flipColors(h);
+        h.size = 1 + size(h.left) + size(h.right);
+        return h;
     }
 
+    /* Iterates over the keys in ascending order. */
     @Override
     public Iterator<K> iterator() {
-        throw new UnsupportedOperationException("Iterator not implemented yet");
+        return new InOrderIterator(null, null);
     }
 }
@@ -0,0 +1,453 @@
+package bstmap;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A B-tree implementation of Map61B (Cormen et al., Introduction to
+ * Algorithms, ch. 18). Each node keeps its keys and values in contiguous
+ * arrays and is searched by binary search, so a lookup touches about
+ * log_B(n) nodes instead of the log_2(n) a binary tree chases.
+ *
+ * Every node but the root holds between t - 1 and 2t - 1 keys, where the
+ * maximum is chosen at construction. Nodes are split on the way down
+ * during put and topped up on the way down during remove, so neither ever
+ * has to walk back up.
+ */
+public class BTreeMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+    private static final int DEFAULT_MAX_KEYS = 63;
+
+    private final int t; // minimum degree: non-root nodes have t - 1 to 2t - 1 keys
+    private Node root;
+    private int size;
+
+    private class Node {
+        Object[] keys;
+        Object[] values;
+        Node[] children; // null for a leaf
+        int n; // number of keys in use
+
+        Node(boolean leaf) {
+            keys = new Object[2 * t - 1];
+            values = new Object[2 * t - 1];
+            if (!leaf) {
+                children = newNodeArray(2 * t);
+            }
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+        @SuppressWarnings("unchecked") // keys only ever holds Ks
+        K key(int i) {
+            return (K) keys[i];
+        }
+
+        @SuppressWarnings("unchecked") // values only ever holds Vs
+        V value(int i) {
+            return (V) values[i];
+        }
+
+        /* Returns the index of key if present, else -(insertion point) - 1. */
+        int search(K key) {
+            int lo = 0;
+            int hi = n - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = key.compareTo(key(mid));
+                if (cmp < 0) {
+                    hi = mid - 1;
+                }
+                else if (cmp > 0) {
+                    lo = mid + 1;
+                }
+                else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+    }
+
+    public BTreeMap() {
+        this(DEFAULT_MAX_KEYS);
+    }
+
+    /** Creates an empty map whose nodes hold at most maxKeys keys. maxKeys is
+     * rounded down to an odd number and must be at least 3. */
+    public BTreeMap(int maxKeys) {
+        if (maxKeys < 3) throw new IllegalArgumentException("a B-tree node must hold at least 3 keys");
+        t = (maxKeys + 1) / 2;
+        clear();
+    }
+
+    /** Removes all the mappings from this map. */
+    @Override
+    public void clear() {
+        root = new Node(true);
+        size = 0;
+    }
+
+    /* Returns true if this map contains a mapping for the specified key. */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) throw new IllegalArgumentException("calls containsKey() with a null key");
+        return find(key) != null;
+    }
+
+    /* Returns the value to which the specified key is mapped, or null if this
+     * map contains no mapping for the key.
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) throw new IllegalArgumentException("calls get() with a null key");
+        Node x = find(key);
+        return x == null ? null : x.value(x.search(key));
+    }
+
+    /* Returns the node holding key, or null. */
+    private Node find(K key) {
+        Node x = root;
+        while (true) {
+            int i = x.search(key);
+            if (i >= 0) {
+                return x;
+            }
+            if (x.isLeaf()) {
+                return null;
+            }
+            x = x.children[-i - 1];
+        }
+    }
+
+    /* Returns the number of key-value mappings in this map. */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Associates the specified value with the specified key in this map. */
+    @Override
+    public void put(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("calls put() with a null key");
+        if (root.n == 2 * t - 1) {
+            Node newRoot = new Node(false);
+            newRoot.children[0] = root;
+            root = newRoot;
+            splitChild(root, 0);
+        }
+        Node x = root;
+        while (true) {
+            int i = x.search(key);
+            if (i >= 0) {
+                x.values[i] = value;
+                return;
+            }
+            i = -i - 1;
+            if (x.isLeaf()) {
+                System.arraycopy(x.keys, i, x.keys, i + 1, x.n - i);
+                System.arraycopy(x.values, i, x.values, i + 1, x.n - i);
+                x.keys[i] = key;
+                x.values[i] = value;
+                x.n += 1;
+                size += 1;
+                return;
+            }
+            if (x.children[i].n == 2 * t - 1) {
+                splitChild(x, i);
+                int cmp = key.compareTo(x.key(i));
+                if (cmp == 0) {
+                    x.values[i] = value;
+                    return;
+                }
+                if (cmp > 0) {
+                    i += 1;
+                }
+            }
+            x = x.children[i];
+        }
+    }
+
+    /* Splits the full child x.children[i] around its median, which moves up into x. */
+    private void splitChild(Node x, int i) {
+        Node y = x.children[i];
+        Node z = new Node(y.isLeaf());
+        z.n = t - 1;
+        System.arraycopy(y.keys, t, z.keys, 0, t - 1);
+        System.arraycopy(y.values, t, z.values, 0, t - 1);
+        if (!y.isLeaf()) {
+            System.arraycopy(y.children, t, z.children, 0, t);
+        }
+
+        System.arraycopy(x.children, i + 1, x.children, i + 2, x.n - i);
+        x.children[i + 1] = z;
+        System.arraycopy(x.keys, i, x.keys, i + 1, x.n - i);
+        System.arraycopy(x.values, i, x.values, i + 1, x.n - i);
+        x.keys[i] = y.keys[t - 1];
+        x.values[i] = y.values[t - 1];
+        x.n += 1;
+
+        y.n = t - 1;
+        clearFrom(y, t - 1);
+    }
+
+    /* Nulls out the slots of x from index from on, so removed entries can be collected. */
+    private void clearFrom(Node x, int from) {
+        for (int j = from; j < x.keys.length; j++) {
+            x.keys[j] = null;
+            x.values[j] = null;
+        }
+        if (!x.isLeaf()) {
+            for (int j = from + 1; j < x.children.length; j++) {
+                x.children[j] = null;
+            }
+        }
+    }
+
+    /* Returns a Set of the keys contained in this map, in ascending order. */
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = new TreeSet<>();
+        for (K key : this) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /* Removes the mapping for the specified key from this map if present. */
+    @Override
+    public V remove(K key) {
+        if (key == null) throw new IllegalArgumentException("calls remove() with a null key");
+        Node holder = find(key);
+        if (holder == null) {
+            return null;
+        }
+        return removeFound(key, holder.value(holder.search(key)));
+    }
+
+    /* Removes the entry for the specified key only if it is currently mapped to
+     * the specified value. */
+    @Override
+    public V remove(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("calls remove() with a null key");
+        Node holder = find(key);
+        if (holder == null) {
+            return null;
+        }
+        V current = holder.value(holder.search(key));
+        if (!Objects.equals(current, value)) {
+            return null;
+        }
+        return removeFound(key, current);
+    }
+
+    /* Removes key, which is known to be in the map with the given value, and
+     * returns that value. */
+    private V removeFound(K key, V value) {
+        remove(root, key);
+        if (root.n == 0 && !root.isLeaf()) {
+            root = root.children[0];
+        }
+        size -= 1;
+        return value;
+    }
+
+    /* Removes key, which is in the subtree rooted at x. Every node descended
+     * into has at least t keys first, so removing one never underflows it. */
+    private void remove(Node x, K key) {
+        while (true) {
+            int i = x.search(key);
+            if (i >= 0 && x.isLeaf()) {
+                System.arraycopy(x.keys, i + 1, x.keys, i, x.n - i - 1);
+                System.arraycopy(x.values, i + 1, x.values, i, x.n - i - 1);
+                x.n -= 1;
+                x.keys[x.n] = null;
+                x.values[x.n] = null;
+                return;
+            }
+            if (i >= 0) {
+                Node left = x.children[i];
+                Node right = x.children[i + 1];
+                if (left.n >= t) {
+                    // Replace key by its predecessor, then remove that from the left.
+                    Node p = left;
+                    while (!p.isLeaf()) {
+                        p = p.children[p.n];
+                    }
+                    x.keys[i] = p.keys[p.n - 1];
+                    x.values[i] = p.values[p.n - 1];
+                    key = x.key(i);
+                    x = left;
+                }
+                else if (right.n >= t) {
+                    Node s = right;
+                    while (!s.isLeaf()) {
+                        s = s.children[0];
+                    }
+                    x.keys[i] = s.keys[0];
+                    x.values[i] = s.values[0];
+                    key = x.key(i);
+                    x = right;
+                }
+                else {
+                    merge(x, i);
+                    x = left;
+                }
+                continue;
+            }
+            if (x.isLeaf()) {
+                return;
+            }
+            i = -i - 1;
+            if (x.children[i].n == t - 1) {
+                i = fill(x, i);
+            }
+            x = x.children[i];
+        }
+    }
+
+    /* Gives x.children[i], which has t - 1 keys, a t-th key by borrowing from
+     * a sibling or merging with one. Returns the index of the child that now
+     * covers the keys the original child did. */
+    private int fill(Node x, int i) {
+        Node c = x.children[i];
+        if (i > 0 && x.children[i - 1].n >= t) {
+            Node left = x.children[i - 1];
+            System.arraycopy(c.keys, 0, c.keys, 1, c.n);
+            System.arraycopy(c.values, 0, c.values, 1, c.n);
+            if (!c.isLeaf()) {
+                System.arraycopy(c.children, 0, c.children, 1, c.n + 1);
+                c.children[0] = left.children[left.n];
+                left.children[left.n] = null;
+            }
+            c.keys[0] = x.keys[i - 1];
+            c.values[0] = x.values[i - 1];
+            c.n += 1;
+            x.keys[i - 1] = left.keys[left.n - 1];
+            x.values[i - 1] = left.values[left.n - 1];
+            left.n -= 1;
+            left.keys[left.n] = null;
+            left.values[left.n] = null;
+            return i;
+        }
+        if (i < x.n && x.children[i + 1].n >= t) {
+            Node right = x.children[i + 1];
+            c.keys[c.n] = x.keys[i];
+            c.values[c.n] = x.values[i];
+            if (!c.isLeaf()) {
+                c.children[c.n + 1] = right.children[0];
+                System.arraycopy(right.children, 1, right.children, 0, right.n);
+                right.children[right.n] = null;
+            }
+            c.n += 1;
+            x.keys[i] = right.keys[0];
+            x.values[i] = right.values[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.n - 1);
+            System.arraycopy(right.values, 1, right.values, 0, right.n - 1);
+            right.n -= 1;
+            right.keys[right.n] = null;
+            right.values[right.n] = null;
+            return i;
+        }
+        if (i < x.n) {
+            merge(x, i);
+            return i;
+        }
+        merge(x, i - 1);
+        return i - 1;
+    }
+
+    /* Merges x.children[i + 1] and the key between them into x.children[i]. */
+    private void merge(Node x, int i) {
+        Node left = x.children[i];
+        Node right = x.children[i + 1];
+        left.keys[left.n] = x.keys[i];
+        left.values[left.n] = x.values[i];
+        System.arraycopy(right.keys, 0, left.keys, left.n + 1, right.n);
+        System.arraycopy(right.values, 0, left.values, left.n + 1, right.n);
+        if (!left.isLeaf()) {
+            System.arraycopy(right.children, 0, left.children, left.n + 1, right.n + 1);
+        }
+        left.n += right.n + 1;
+
+        System.arraycopy(x.keys, i + 1, x.keys, i, x.n - i - 1);
+        System.arraycopy(x.values, i + 1, x.values, i, x.n - i - 1);
+        System.arraycopy(x.children, i + 2, x.children, i + 1, x.n - i - 1);
+        x.n -= 1;
+        x.keys[x.n] = null;
+        x.values[x.n] = null;
+        x.children[x.n + 1] = null;
+    }
+
+    /* Iterates over the keys in ascending order. */
+    /* Returns a new Node array of the given length. Java cannot make an array
+     * of Node, an inner class of a generic type, so this makes one of the
+     * wildcard type and casts it; only Nodes of this tree are ever stored in it. */
+    @SuppressWarnings("unchecked")
+    private Node[] newNodeArray(int length) {
+        return (Node[]) new BTreeMap<?, ?>.Node[length];
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new BTreeIterator();
+    }
+
+    /* In-order iterator. nodes[d] is the node at depth d of the current path
+     * and next[d] the index of the next key to return from it. */
+    private class BTreeIterator implements Iterator<K> {
+        private Node[] nodes;
+        private int[] next;
+        private int depth;
+
+        BTreeIterator() {
+            int height = 1;
+            for (Node x = root; !x.isLeaf(); x = x.children[0]) {
+                height += 1;
+            }
+            nodes = newNodeArray(height);
+            next = new int[height];
+            depth = 0;
+            descend(root);
+        }
+
+        /* Pushes x and the leftmost path below it. */
+        private void descend(Node x) {
+            while (true) {
+                nodes[depth] = x;
+                next[depth] = 0;
+                depth += 1;
+                if (x.isLeaf()) {
+                    return;
+                }
+                x = x.children[0];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (depth > 0 && next[depth - 1] >= nodes[depth - 1].n) {
+                depth -= 1;
+            }
+            return depth > 0;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node x = nodes[depth - 1];
+            int i = next[depth - 1];
+            next[depth - 1] = i + 1;
+            if (!x.isLeaf()) {
+                descend(x.children[i + 1]);
+            }
+            return x.key(i);
+        }
+    }
+}
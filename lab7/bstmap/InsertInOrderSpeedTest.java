@@ -33,6 +33,8 @@ public class InsertInOrderSpeedTest {
             int N = i.waitForPositiveInt(input);
             timeInOrderMap61B(new ULLMap<>(), N);
             timeInOrderMap61B(new BSTMap<>(), N);
+            timeInOrderMap61B(new BSTMap<>(true), N);
+            timeInOrderMap61B(new BTreeMap<>(), N);
             timeInOrderTreeMap(new TreeMap<>(), N);
             timeInOrderHashMap(new HashMap<>(), N);
 
@@ -0,0 +1,31 @@
+package bstmap;
+
+/* A Map61B whose keys are kept in sorted order, so that it can also answer
+ * questions about the position of a key among the others. */
+public interface OrderedMap61B<K extends Comparable<K>, V> extends Map61B<K, V> {
+
+    /* Returns the smallest key, or null if the map is empty. */
+    K min();
+
+    /* Returns the largest key, or null if the map is empty. */
+    K max();
+
+    /* Returns the largest key less than or equal to key, or null if there is none. */
+    K floor(K key);
+
+    /* Returns the smallest key greater than or equal to key, or null if there is none. */
+    K ceiling(K key);
+
+    /* Returns the number of keys strictly less than key. */
+    int rank(K key);
+
+    /* Returns the key with the given rank, that is the key that has exactly
+     * rank smaller keys. Throws IllegalArgumentException unless
+     * 0 <= rank < size(). */
+    K select(int rank);
+
+    /* Returns the keys between lo and hi, inclusive, in ascending order.
+     * Keys are found as the iteration reaches them rather than collected
+     * up front. */
+    Iterable<K> range(K lo, K hi);
+}
@@ -0,0 +1,39 @@
+package bstmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the balanced (left-leaning red-black) mode of BSTMap. */
+public class TestBSTMapBalanced {
+
+    /* Sorted inserts make an unbalanced BST a linked list, which
+     * overflows the stack long before a million keys. */
+    @Test
+    public void inOrderInsertTest() {
+        BSTMap<Integer, Integer> b = new BSTMap<>(true);
+        int n = 1000000;
+        for (int i = 0; i < n; i++) {
+            b.put(i, -i);
+        }
+        assertEquals(n, b.size());
+        for (int i = 0; i < n; i += 997) {
+            assertEquals(Integer.valueOf(-i), b.get(i));
+        }
+        assertFalse(b.containsKey(n));
+    }
+
+    @Test
+    public void reverseOrderAndOverwriteTest() {
+        BSTMap<String, Integer> b = new BSTMap<>(true);
+        for (int i = 9999; i >= 0; i--) {
+            b.put("key" + i, i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            b.put("key" + i, i + 1);
+        }
+        assertEquals(10000, b.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i + 1), b.get("key" + i));
+        }
+    }
+}
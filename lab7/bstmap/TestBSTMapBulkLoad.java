@@ -0,0 +1,113 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of building a BSTMap from sorted input. */
+public class TestBSTMapBulkLoad {
+
+    @Test
+    public void fromSortedTest() {
+        for (int n : new int[] {0, 1, 2, 3, 7, 8, 100, 1000000}) {
+            for (boolean balanced : new boolean[] {false, true}) {
+                List<Integer> keys = new ArrayList<>();
+                List<Integer> values = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    keys.add(i);
+                    values.add(-i);
+                }
+                BSTMap<Integer, Integer> b = BSTMap.fromSorted(keys.iterator(), values.iterator(), balanced);
+                assertEquals(n, b.size());
+                for (int i = 0; i < n; i += 1 + n / 1000) {
+                    assertEquals(Integer.valueOf(-i), b.get(i));
+                    assertEquals(Integer.valueOf(i), b.select(i));
+                    assertEquals(i, b.rank(i));
+                }
+            }
+        }
+    }
+
+    /* Every size of balanced bulk load must leave a valid red-black tree,
+     * which later puts and removes rely on. */
+    @Test
+    public void balancedThenModifyTest() {
+        Random r = new Random(13);
+        for (int n = 0; n < 200; n++) {
+            List<Integer> keys = new ArrayList<>();
+            TreeMap<Integer, Integer> t = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                keys.add(i * 2);
+                t.put(i * 2, i * 2);
+            }
+            BSTMap<Integer, Integer> b = BSTMap.fromSorted(keys.iterator(), keys.iterator(), true);
+            for (int op = 0; op < 300; op++) {
+                int k = r.nextInt(2 * n + 2);
+                if (r.nextBoolean()) {
+                    assertEquals(t.remove(k), b.remove(k));
+                } else {
+                    t.put(k, op);
+                    b.put(k, op);
+                }
+            }
+            assertEquals(new ArrayList<>(t.keySet()), new ArrayList<>(b.keySet()));
+        }
+    }
+
+    @Test
+    public void putAllSortedMergeTest() {
+        BSTMap<String, Integer> b = new BSTMap<>();
+        b.put("b", 1);
+        b.put("d", 2);
+        b.put("f", 3);
+        List<String> keys = List.of("a", "d", "e", "g");
+        List<Integer> values = List.of(10, 20, 30, 40);
+        b.putAllSorted(keys.iterator(), values.iterator());
+        assertEquals(6, b.size());
+        assertEquals(Integer.valueOf(10), b.get("a"));
+        assertEquals(Integer.valueOf(1), b.get("b"));
+        assertEquals(Integer.valueOf(20), b.get("d"));
+        assertEquals(Integer.valueOf(30), b.get("e"));
+        assertEquals(Integer.valueOf(3), b.get("f"));
+        assertEquals(Integer.valueOf(40), b.get("g"));
+        assertEquals("e", b.select(3));
+    }
+
+    /* Existing entries that are not replaced keep their own values, null included. */
+    @Test
+    public void putAllSortedKeepsValuesTest() {
+        Random r = new Random(21);
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> t = new TreeMap<>();
+            for (int i = 0; i < 2000; i++) {
+                int k = r.nextInt(10000);
+                Integer v = r.nextInt(10) == 0 ? null : r.nextInt();
+                b.put(k, v);
+                t.put(k, v);
+            }
+            List<Integer> keys = new ArrayList<>();
+            List<Integer> values = new ArrayList<>();
+            for (int k = 0; k < 10000; k += 1 + r.nextInt(20)) {
+                keys.add(k);
+                values.add(-k);
+                t.put(k, -k);
+            }
+            b.putAllSorted(keys.iterator(), values.iterator());
+            assertEquals(t.size(), b.size());
+            for (Integer k : t.keySet()) {
+                assertTrue(b.containsKey(k));
+                assertEquals(t.get(k), b.get(k));
+            }
+            assertEquals(new ArrayList<>(t.keySet()), new ArrayList<>(b.keySet()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooFewValuesTest() {
+        BSTMap.fromSorted(List.of(1, 2).iterator(), List.of(1).iterator());
+    }
+}
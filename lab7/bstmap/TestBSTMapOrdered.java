@@ -0,0 +1,63 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the ordered queries of BSTMap, checked against java.util.TreeMap. */
+public class TestBSTMapOrdered {
+
+    @Test
+    public void emptyTest() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        assertNull(b.min());
+        assertNull(b.max());
+        assertNull(b.floor(3));
+        assertNull(b.ceiling(3));
+        assertEquals(0, b.rank(3));
+        assertFalse(b.range(0, 10).iterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectOutOfRangeTest() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        b.put(1, 1);
+        b.select(1);
+    }
+
+    @Test
+    public void compareWithTreeMapTest() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> t = new TreeMap<>();
+            java.util.Random r = new java.util.Random(7);
+            for (int i = 0; i < 2000; i++) {
+                int k = r.nextInt(10000) * 2; // even keys, so odd probes miss
+                b.put(k, i);
+                t.put(k, i);
+            }
+            assertEquals(t.firstKey(), b.min());
+            assertEquals(t.lastKey(), b.max());
+            List<Integer> sorted = new ArrayList<>(t.keySet());
+            for (int i = 0; i < sorted.size(); i++) {
+                assertEquals(sorted.get(i), b.select(i));
+                assertEquals(i, b.rank(sorted.get(i)));
+            }
+            for (int probe = -5; probe < 20005; probe += 7) {
+                assertEquals(t.floorKey(probe), b.floor(probe));
+                assertEquals(t.ceilingKey(probe), b.ceiling(probe));
+                assertEquals(t.headMap(probe).size(), b.rank(probe));
+            }
+            for (int lo = -10; lo < 20000; lo += 1999) {
+                int hi = lo + 3001;
+                List<Integer> got = new ArrayList<>();
+                for (int k : b.range(lo, hi)) {
+                    got.add(k);
+                }
+                assertEquals(new ArrayList<>(t.subMap(lo, true, hi, true).keySet()), got);
+            }
+        }
+    }
+}
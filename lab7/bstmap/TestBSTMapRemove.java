@@ -0,0 +1,74 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of remove and iteration in both modes of BSTMap, checked against java.util.TreeMap. */
+public class TestBSTMapRemove {
+
+    @Test
+    public void randomRemoveTest() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> t = new TreeMap<>();
+            Random r = new Random(21);
+            for (int i = 0; i < 50000; i++) {
+                int k = r.nextInt(5000);
+                if (r.nextInt(3) == 0) {
+                    assertEquals(t.remove(k), b.remove(k));
+                } else {
+                    b.put(k, i);
+                    t.put(k, i);
+                }
+                assertEquals(t.size(), b.size());
+            }
+            List<Integer> keys = new ArrayList<>();
+            for (int k : b) {
+                keys.add(k);
+            }
+            assertEquals(new ArrayList<>(t.keySet()), keys);
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(keys.get(i), b.select(i));
+            }
+        }
+    }
+
+    @Test
+    public void removeIfMappedTest() {
+        BSTMap<String, String> b = new BSTMap<>();
+        b.put("a", "x");
+        assertNull(b.remove("a", "y"));
+        assertTrue(b.containsKey("a"));
+        assertEquals("x", b.remove("a", "x"));
+        assertFalse(b.containsKey("a"));
+        assertNull(b.remove("a", "x"));
+    }
+
+    /* Sorted inserts into the plain BST give a tree as deep as it is large.
+     * Nothing here may recurse along that depth. */
+    @Test
+    public void degenerateTreeTest() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            b.put(i, i);
+        }
+        int expected = 0;
+        Iterator<Integer> it = b.iterator();
+        while (it.hasNext()) {
+            assertEquals(Integer.valueOf(expected), it.next());
+            expected += 1;
+        }
+        assertEquals(n, expected);
+        for (int i = n - 1; i >= 0; i -= 2) {
+            assertEquals(Integer.valueOf(i), b.remove(i));
+        }
+        assertEquals(n / 2, b.size());
+        assertEquals(Integer.valueOf(n - 2), b.max());
+    }
+}
@@ -0,0 +1,114 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of BTreeMap at several node sizes, checked against java.util.TreeMap. */
+public class TestBTreeMap {
+    private static final int[] ORDERS = {3, 4, 7, 64, 128};
+
+    @Test
+    public void sanityGenericsTest() {
+        BTreeMap<String, String> a = new BTreeMap<>();
+        BTreeMap<String, Integer> b = new BTreeMap<>(32);
+        BTreeMap<Integer, String> c = new BTreeMap<>(3);
+        assertEquals(0, a.size() + b.size() + c.size());
+    }
+
+    @Test
+    public void putGetTest() {
+        for (int order : ORDERS) {
+            BTreeMap<String, Integer> b = new BTreeMap<>(order);
+            for (int i = 0; i < 1000; i++) {
+                b.put("hi" + i, 1 + i);
+                assertEquals(i + 1, b.size());
+                assertTrue(b.containsKey("hi" + i));
+            }
+            b.put("hi500", -1);
+            assertEquals(1000, b.size());
+            assertEquals(Integer.valueOf(-1), b.get("hi500"));
+            assertEquals(Integer.valueOf(1), b.get("hi0"));
+            assertNull(b.get("hello"));
+            assertFalse(b.containsKey("hello"));
+            b.clear();
+            assertEquals(0, b.size());
+            assertNull(b.get("hi0"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallOrderTest() {
+        new BTreeMap<Integer, Integer>(2);
+    }
+
+    @Test
+    public void randomPutRemoveTest() {
+        for (int order : ORDERS) {
+            BTreeMap<Integer, Integer> b = new BTreeMap<>(order);
+            TreeMap<Integer, Integer> t = new TreeMap<>();
+            Random r = new Random(order);
+            for (int i = 0; i < 50000; i++) {
+                int k = r.nextInt(5000);
+                int op = r.nextInt(3);
+                if (op == 0) {
+                    assertEquals(t.remove(k), b.remove(k));
+                } else if (op == 1) {
+                    assertEquals(t.get(k), b.get(k));
+                } else {
+                    b.put(k, i);
+                    t.put(k, i);
+                }
+                assertEquals(t.size(), b.size());
+            }
+            List<Integer> keys = new ArrayList<>();
+            for (int k : b) {
+                keys.add(k);
+            }
+            assertEquals(new ArrayList<>(t.keySet()), keys);
+            assertEquals(t.keySet(), b.keySet());
+        }
+    }
+
+    @Test
+    public void inOrderInsertAndDrainTest() {
+        for (int order : ORDERS) {
+            BTreeMap<Integer, Integer> b = new BTreeMap<>(order);
+            for (int i = 0; i < 20000; i++) {
+                b.put(i, i);
+            }
+            for (int i = 0; i < 20000; i += 2) {
+                assertEquals(Integer.valueOf(i), b.remove(i));
+            }
+            for (int i = 19999; i > 0; i -= 2) {
+                assertEquals(Integer.valueOf(i), b.remove(i));
+            }
+            assertEquals(0, b.size());
+            assertFalse(b.iterator().hasNext());
+            b.put(1, 1);
+            assertEquals(Integer.valueOf(1), b.get(1));
+        }
+    }
+
+    @Test
+    public void removeIfMappedTest() {
+        BTreeMap<String, Integer> b = new BTreeMap<>(3);
+        b.put("a", 1);
+        b.put("b", 2);
+        assertNull(b.remove("a", 2));
+        assertEquals(2, b.size());
+        assertEquals(Integer.valueOf(1), b.remove("a", 1));
+        assertEquals(1, b.size());
+        assertNull(b.remove("z"));
+        assertNull(b.remove("z", null));
+        b.put("n", null);
+        assertNull(b.remove("n", 3));
+        assertTrue(b.containsKey("n"));
+        assertNull(b.remove("n", null));
+        assertFalse(b.containsKey("n"));
+        assertEquals(1, b.size());
+    }
+}
@@ -0,0 +1,452 @@
+package hashmap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ *  A thread-safe hash table-backed Map with lock striping and lock-free reads.
+ *
+ *  Buckets are chains of nodes hung off an AtomicReferenceArray. The table
+ *  length is a multiple of the number of stripes, so bucket i is always
+ *  guarded by stripe lock i % stripes, whatever the table size. Writers hold
+ *  the lock for their key's stripe; get and containsKey take no lock and
+ *  see each node once it has been published into its bucket.
+ *
+ *  A stripe that grows past its share of maxLoad triggers a resize into a
+ *  table twice the size. Because both lengths are multiples of the number
+ *  of stripes, the buckets of stripe s in the old table only feed buckets
+ *  of stripe s in the new one, so the transfer is done one stripe at a
+ *  time, holding only that stripe's lock. Any writer that takes the lock
+ *  of a stripe that has not been moved yet moves it first, and the thread
+ *  that started the resize sweeps the stripes nobody has touched. Writers
+ *  to other stripes carry on meanwhile, and no thread ever holds more than
+ *  one stripe lock to resize. Nodes are copied rather than relinked, so
+ *  readers never wait: they look in the new table for stripes already
+ *  moved and in the old, intact chains for the rest.
+ *
+ *  Null keys and null values are not allowed, so a null from get always
+ *  means the key is absent. Iteration and keySet are weakly consistent: they
+ *  reflect the table as it was at some point during the call.
+ */
+public class ConcurrentMyHashMap<K, V> implements Map61B<K, V> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+    private static final int DEFAULT_STRIPES = 16;
+
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** A resize in progress: the stripes of from are copied into to one at a time. */
+    private static class Transfer<K, V> {
+        final AtomicReferenceArray<Node<K, V>> from;
+        final AtomicReferenceArray<Node<K, V>> to;
+        final AtomicIntegerArray moved; // moved[s] is 1 once stripe s is in to
+        final AtomicInteger remaining; // number of stripes not yet moved
+
+        Transfer(AtomicReferenceArray<Node<K, V>> from, int stripes) {
+            this.from = from;
+            to = new AtomicReferenceArray<>(from.length() * 2);
+            moved = new AtomicIntegerArray(stripes);
+            remaining = new AtomicInteger(stripes);
+        }
+
+        boolean isMoved(int s) {
+            return moved.get(s) != 0;
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private volatile Transfer<K, V> transfer; // null unless a resize is in progress
+    private final Object resizeLock = new Object(); // guards starting and finishing a transfer
+    private final ReentrantLock[] locks;
+    private final AtomicIntegerArray counts; // counts[s] is the number of keys in stripe s
+    private final double maxLoad;
+
+    public ConcurrentMyHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentMyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     * @param stripes number of locks writers are spread over, rounded up to a power of two
+     */
+    public ConcurrentMyHashMap(int initialSize, double maxLoad, int stripes) {
+        if (maxLoad <= 0 || stripes < 1) {
+            throw new IllegalArgumentException("maxLoad and stripes must be positive");
+        }
+        this.maxLoad = maxLoad;
+        int s = 1;
+        while (s < stripes) {
+            s *= 2;
+        }
+        locks = new ReentrantLock[s];
+        for (int i = 0; i < s; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        counts = new AtomicIntegerArray(s);
+        int capacity = s;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        table = new AtomicReferenceArray<>(capacity);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static <K, V> Node<K, V> findIn(AtomicReferenceArray<Node<K, V>> t, int h, Object key) {
+        for (Node<K, V> n = t.get(h & (t.length() - 1)); n != null; n = n.next) {
+            if (n.hash == h && key.equals(n.key)) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("null keys are not allowed");
+        }
+    }
+
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values are not allowed");
+        }
+    }
+
+    @Override
+    public void clear() {
+        lockAll();
+        try {
+            synchronized (resizeLock) {
+                Transfer<K, V> tr = transfer;
+                table = new AtomicReferenceArray<>(tr != null ? tr.to.length() : table.length());
+                transfer = null;
+            }
+            for (int s = 0; s < locks.length; s++) {
+                counts.set(s, 0);
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkKey(key);
+        int h = hash(key);
+        return findIn(readTable(h & (locks.length - 1)), h, key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        checkKey(key);
+        int h = hash(key);
+        Node<K, V> n = findIn(readTable(h & (locks.length - 1)), h, key);
+        return n == null ? null : n.value;
+    }
+
+    /** Returns the number of mappings. Under concurrent updates this is only an estimate. */
+    @Override
+    public int size() {
+        int size = 0;
+        for (int s = 0; s < locks.length; s++) {
+            size += counts.get(s);
+        }
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        putVal(key, value, false);
+    }
+
+    /**
+     * Associates value with key unless key already has a value, atomically.
+     * Returns the existing value, or null if value was added.
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /** Puts key and value, or only reads the current value if onlyIfAbsent. Returns the old value. */
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        checkKey(key);
+        checkValue(value);
+        int h = hash(key);
+        int s = h & (locks.length - 1);
+        AtomicReferenceArray<Node<K, V>> t;
+        locks[s].lock();
+        try {
+            t = writeTable(s);
+            Node<K, V> n = findIn(t, h, key);
+            if (n != null) {
+                V old = n.value;
+                if (!onlyIfAbsent) {
+                    n.value = value;
+                }
+                return old;
+            }
+            addNode(t, h, key, value, s);
+        } finally {
+            locks[s].unlock();
+        }
+        resizeIfNeeded(t, s);
+        return null;
+    }
+
+    /**
+     * Returns the value for key, first computing it with f and adding it if
+     * there is none. This happens atomically: f is called at most once per
+     * absent key, even when several threads ask for it at the same time. f
+     * runs while holding a stripe lock, so it must be short and must not
+     * update this map. If f returns null nothing is added.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> f) {
+        checkKey(key);
+        int h = hash(key);
+        int s = h & (locks.length - 1);
+        Node<K, V> n = findIn(readTable(s), h, key);
+        if (n != null) {
+            return n.value;
+        }
+        AtomicReferenceArray<Node<K, V>> t;
+        V value;
+        locks[s].lock();
+        try {
+            t = writeTable(s);
+            n = findIn(t, h, key);
+            if (n != null) {
+                return n.value;
+            }
+            value = f.apply(key);
+            if (value == null) {
+                return null;
+            }
+            addNode(t, h, key, value, s);
+        } finally {
+            locks[s].unlock();
+        }
+        resizeIfNeeded(t, s);
+        return value;
+    }
+
+    /** Publishes a new node at the head of its bucket. Caller holds lock s. */
+    private void addNode(AtomicReferenceArray<Node<K, V>> t, int h, K key, V value, int s) {
+        int i = h & (t.length() - 1);
+        t.set(i, new Node<>(h, key, value, t.get(i)));
+        counts.incrementAndGet(s);
+    }
+
+    /** Returns the table a reader, holding no lock, should search for a key in stripe s. */
+    private AtomicReferenceArray<Node<K, V>> readTable(int s) {
+        Transfer<K, V> tr = transfer;
+        if (tr == null) {
+            return table;
+        }
+        return tr.isMoved(s) ? tr.to : tr.from;
+    }
+
+    /**
+     * Returns the table that holds stripe s, first moving the stripe into the
+     * new table if a resize is in progress. Caller holds lock s, so no
+     * transfer can move stripe s until the caller is done with it.
+     */
+    private AtomicReferenceArray<Node<K, V>> writeTable(int s) {
+        Transfer<K, V> tr = transfer;
+        if (tr == null) {
+            return table;
+        }
+        if (!tr.isMoved(s)) {
+            moveStripe(tr, s);
+        }
+        return tr.to;
+    }
+
+    /** Starts doubling table t if stripe s is over its share of the load,
+     *  and moves every stripe that no writer has moved yet. Caller holds no lock. */
+    private void resizeIfNeeded(AtomicReferenceArray<Node<K, V>> t, int s) {
+        if (counts.get(s) <= maxLoad * t.length() / locks.length) {
+            return;
+        }
+        Transfer<K, V> tr;
+        synchronized (resizeLock) {
+            if (transfer != null || table != t) {
+                return; // someone else got there first
+            }
+            tr = new Transfer<>(t, locks.length);
+            transfer = tr;
+        }
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                if (transfer == tr && !tr.isMoved(i)) {
+                    moveStripe(tr, i);
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /** Copies the buckets of stripe s from tr.from into tr.to, publishing
+     *  tr.to as the table once every stripe is moved. Caller holds lock s. */
+    private void moveStripe(Transfer<K, V> tr, int s) {
+        AtomicReferenceArray<Node<K, V>> from = tr.from;
+        AtomicReferenceArray<Node<K, V>> to = tr.to;
+        int length = to.length();
+        for (int i = s; i < from.length(); i += locks.length) {
+            // Copy rather than relink, so readers still walking from see intact chains.
+            for (Node<K, V> n = from.get(i); n != null; n = n.next) {
+                int j = n.hash & (length - 1);
+                to.set(j, new Node<>(n.hash, n.key, n.value, to.get(j)));
+            }
+        }
+        tr.moved.set(s, 1);
+        if (tr.remaining.decrementAndGet() == 0) {
+            synchronized (resizeLock) {
+                table = to;
+                transfer = null;
+            }
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int s = locks.length - 1; s >= 0; s--) {
+            locks[s].unlock();
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        for (K key : this) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    @Override
+    public V remove(K key) {
+        return removeVal(key, null);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        checkValue(value);
+        return removeVal(key, value);
+    }
+
+    /** Removes key if it is mapped to expected, or to anything if expected is null. */
+    private V removeVal(K key, V expected) {
+        checkKey(key);
+        int h = hash(key);
+        int s = h & (locks.length - 1);
+        locks[s].lock();
+        try {
+            AtomicReferenceArray<Node<K, V>> t = writeTable(s);
+            int i = h & (t.length() - 1);
+            Node<K, V> prev = null;
+            for (Node<K, V> n = t.get(i); n != null; prev = n, n = n.next) {
+                if (n.hash == h && key.equals(n.key)) {
+                    if (expected != null && !expected.equals(n.value)) {
+                        return null;
+                    }
+                    // n keeps its next, so a reader standing on n can carry on.
+                    if (prev == null) {
+                        t.set(i, n.next);
+                    } else {
+                        prev.next = n.next;
+                    }
+                    counts.decrementAndGet(s);
+                    return n.value;
+                }
+            }
+            return null;
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new ConcurrentMyHashMapIterator();
+    }
+
+    /**
+     * Walks the buckets of the table that was current when the iterator was
+     * made. If a resize was in progress, each old bucket whose stripe has
+     * been moved by the time it is reached is read from the two buckets of
+     * the new table it was split into instead.
+     */
+    private class ConcurrentMyHashMapIterator implements Iterator<K> {
+        private final Transfer<K, V> tr = transfer;
+        private final AtomicReferenceArray<Node<K, V>> t = tr != null ? tr.from : table;
+        private int index = 0;
+        private Node<K, V> next = null;
+        private Node<K, V> pending = null; // the upper half of a split bucket, not yet walked
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (pending != null) {
+                    next = pending;
+                    pending = null;
+                } else if (index < t.length()) {
+                    if (tr != null && tr.isMoved(index & (locks.length - 1))) {
+                        next = tr.to.get(index);
+                        pending = tr.to.get(index + t.length());
+                    } else {
+                        next = t.get(index);
+                    }
+                    index += 1;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = next.key;
+            next = next.next;
+            return key;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package hashmap;
+
+import java.util.Arrays;
+
+/**
+ *  A hash map from int keys to int values that never boxes.
+ *
+ *  Keys and values sit in two int arrays, with linear probing and
+ *  backward-shift deletion. Slot i is empty when keys[i] == 0, so the key 0
+ *  itself is kept outside the arrays in zeroValue. put, get and remove
+ *  allocate nothing except when the table doubles, and forEach visits the
+ *  entries without an Iterator.
+ *
+ *  get returns 0 for a missing key; use containsKey or getOrDefault to tell
+ *  the two apart.
+ */
+public class IntIntHashMap {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /** Receives the entries of an IntIntHashMap from forEach. */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size; // entries in the arrays, not counting the zero key
+    private final double maxLoad;
+    private int threshold;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public IntIntHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public IntIntHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be between 0 and 1");
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 2;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min(capacity - 1, (int) (capacity * maxLoad));
+    }
+
+    private int slotFor(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /** Returns the slot holding key, or -1. key must not be 0. */
+    private int indexOf(int key) {
+        for (int i = slotFor(key); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes all of the mappings from this map. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /** Returns the number of key-value mappings in this map. */
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /** Returns the value for key, or 0 if there is none. */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /** Returns the value for key, or defaultValue if there is none. */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    /** Associates value with key, replacing any earlier value. */
+    public void put(int key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = slotFor(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= threshold) {
+            resize(keys.length * 2);
+            put(key, value);
+            return;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+    }
+
+    /** Adds delta to the value for key, treating a missing key as 0, and returns the sum. */
+    public int addTo(int key, int delta) {
+        if (key != 0) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                values[i] += delta;
+                return values[i];
+            }
+        }
+        int sum = get(key) + delta;
+        put(key, sum);
+        return sum;
+    }
+
+    /** Removes the mapping for key. Returns true if there was one. */
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            return had;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return false;
+        }
+        // Shift back later entries of the run that may no longer reach home.
+        int j = (i + 1) & mask;
+        while (keys[j] != 0) {
+            int home = slotFor(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[i] = 0;
+        size -= 1;
+        return true;
+    }
+
+    /** Calls action on every entry, in no particular order. */
+    public void forEach(IntIntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slotFor(oldKeys[j]);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package hashmap;
+
+import java.util.Arrays;
+
+/**
+ *  A hash map from long keys to object values that never boxes its keys.
+ *
+ *  Keys sit in a long array and values in a parallel Object array, with
+ *  linear probing and backward-shift deletion. Slot i is empty when
+ *  keys[i] == 0, so the key 0 itself is kept outside the arrays in
+ *  zeroValue. put, get and remove allocate nothing except when the table
+ *  doubles, and forEach visits the entries without an Iterator.
+ *
+ *  get returns null for a missing key. Null values may be stored, but then
+ *  only containsKey can tell them from a missing key.
+ */
+public class LongObjectHashMap<V> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /** Receives the entries of a LongObjectHashMap from forEach. */
+    @FunctionalInterface
+    public interface LongObjectConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private int size; // entries in the arrays, not counting the zero key
+    private final double maxLoad;
+    private int threshold;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public LongObjectHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor, strictly between 0 and 1
+     */
+    public LongObjectHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be between 0 and 1");
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 2;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = newArray(capacity);
+        mask = capacity - 1;
+        threshold = Math.min(capacity - 1, (int) (capacity * maxLoad));
+    }
+
+    /* Returns a new values array. Only Vs go in, and the array is never
+     * handed out, so nothing sees the Object[] behind the cast. */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(int length) {
+        return (T[]) new Object[length];
+    }
+
+    private int slotFor(long key) {
+        int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /** Returns the slot holding key, or -1. key must not be 0. */
+    private int indexOf(long key) {
+        for (int i = slotFor(key); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes all of the mappings from this map. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /** Returns the number of key-value mappings in this map. */
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /** Returns the value for key, or null if there is none. */
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    /** Associates value with key, replacing any earlier value. */
+    public void put(long key, V value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = slotFor(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= threshold) {
+            resize(keys.length * 2);
+            put(key, value);
+            return;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+    }
+
+    /** Removes the mapping for key and returns its value, or null if there was none. */
+    public V remove(long key) {
+        if (key == 0) {
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return old;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = values[i];
+        // Shift back later entries of the run that may no longer reach home.
+        int j = (i + 1) & mask;
+        while (keys[j] != 0) {
+            int home = slotFor(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[i] = 0;
+        values[i] = null;
+        size -= 1;
+        return old;
+    }
+
+    /** Calls action on every entry, in no particular order. */
+    public void forEach(LongObjectConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slotFor(oldKeys[j]);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
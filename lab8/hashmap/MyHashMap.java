@@ -1,11 +1,35 @@
 package hashmap;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  *  A hash table-backed Map implementation. Provides amortized constant time
  *  access to elements via get(), remove(), and put() in the best case.
  *
+ *  By default the table doubles in one step once the load factor passes
+ *  maxLoad, rehashing every node before the put that triggered it returns.
+ *  With setIncrementalResize(true) it instead rehashes the way Redis does:
+ *  the old and new tables coexist, lookups check both, and every call to
+ *  get, containsKey, put or remove moves a few old buckets across, so no
+ *  single call pays for the whole rehash.
+ *
+ *  A bucket that grows past TREEIFY_THRESHOLD nodes is turned into a
+ *  TreeBucket, ordered by hash code and then by compareTo, as long as all
+ *  its keys are Comparable instances of one class and no two of them
+ *  compare equal without being equal. Lookups in it take O(log n) even
+ *  when many keys share a hash code. It turns back into a createBucket()
+ *  bucket once it shrinks below UNTREEIFY_THRESHOLD, or if a key of another
+ *  class, or one that compares equal to a different key, has to join it.
+ *  Subclasses that override treeifies() to return false keep every bucket
+ *  as made by createBucket().
+ *
  *  Assumes null keys will never be inserted, and does not resize down upon remove().
  *  @author YOUR NAME HERE
  */
@@ -26,13 +50,57 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
     }
 
     /* Instance Variables */
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+    /* Old buckets moved per operation while an incremental resize is running. */
+    static final int REHASH_STEP = 4;
+    /* Bucket sizes at which a bucket becomes a TreeBucket and turns back. */
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
     private Collection<Node>[] buckets;
-    // You should probably define some more!
+    private final double maxLoad;
+    private int size;
+
+    /* Incremental resizing. While oldBuckets is not null, a resize is in
+     * progress: buckets of oldBuckets below rehashIndex have been moved into
+     * buckets (and nulled out), and the rest still hold their nodes. */
+    private boolean incremental;
+    private Collection<Node>[] oldBuckets;
+    private int rehashIndex;
+
+    /**
+     * A bucket for many keys that share a bucket index. All keys in it are
+     * Comparable and of class keyClass.
+     */
+    private class TreeBucket extends TreeSet<Node> {
+        /** TreeSet is Serializable, but MyHashMap never serializes its buckets. */
+        private static final long serialVersionUID = 1L;
+
+        private final Class<?> keyClass;
+
+        TreeBucket(Class<?> keyClass) {
+            super((a, b) -> {
+                int cmp = Integer.compare(a.key.hashCode(), b.key.hashCode());
+                return cmp != 0 ? cmp : ((Comparable<Object>) a.key).compareTo(b.key);
+            });
+            this.keyClass = keyClass;
+        }
+
+        /** Returns true if key can be compared with the keys in this bucket. */
+        boolean accepts(Object key) {
+            return key.getClass() == keyClass;
+        }
+    }
 
     /** Constructors */
-    public MyHashMap() { }
+    public MyHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
 
-    public MyHashMap(int initialSize) { }
+    public MyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
 
     /**
      * MyHashMap constructor that creates a backing array of initialSize.
@@ -41,13 +109,40 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * @param initialSize initial size of backing array
      * @param maxLoad maximum load factor
      */
-    public MyHashMap(int initialSize, double maxLoad) { }
+    public MyHashMap(int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0) {
+            throw new IllegalArgumentException("initialSize and maxLoad must be positive");
+        }
+        this.maxLoad = maxLoad;
+        buckets = createTable(initialSize);
+        size = 0;
+    }
+
+    /**
+     * Chooses between one-shot and incremental resizing. Turning incremental
+     * resizing off finishes any resize that is in progress.
+     */
+    public void setIncrementalResize(boolean on) {
+        if (!on && oldBuckets != null) {
+            rehashStep(oldBuckets.length);
+        }
+        incremental = on;
+    }
+
+    /**
+     * Returns true if crowded buckets may be turned into TreeBuckets.
+     * The MyHashMap*Buckets subclasses return false, so that every bucket
+     * is of the type they are named for.
+     */
+    protected boolean treeifies() {
+        return true;
+    }
 
     /**
      * Returns a new node to be placed in a hash table bucket
      */
     private Node createNode(K key, V value) {
-        return null;
+        return new Node(key, value);
     }
 
     /**
@@ -69,7 +164,7 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * OWN BUCKET DATA STRUCTURES WITH THE NEW OPERATOR!
      */
     protected Collection<Node> createBucket() {
-        return null;
+        return new LinkedList<>();
     }
 
     /**
@@ -79,13 +174,280 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * BE SURE TO CALL THIS FACTORY METHOD WHEN CREATING A TABLE SO
      * THAT ALL BUCKET TYPES ARE OF JAVA.UTIL.COLLECTION
      *
+     * Buckets start out null and are made by createBucket on their first
+     * add, so a new table costs one array allocation and no buckets.
+     *
      * @param tableSize the size of the table to create
      */
+    @SuppressWarnings("unchecked")
     private Collection<Node>[] createTable(int tableSize) {
+        // Java cannot make an array of Collection<Node>, but this one only ever holds Collection<Node> buckets.
+        return (Collection<Node>[]) new Collection<?>[tableSize];
+    }
+
+    /** Returns the index of key's bucket in a table of the given length. */
+    private int indexFor(K key, int length) {
+        return Math.floorMod(key.hashCode(), length);
+    }
+
+    /** Returns the node holding key in the given table, or null. */
+    private Node findIn(Collection<Node>[] table, K key) {
+        Collection<Node> bucket = table[indexFor(key, table.length)];
+        if (bucket == null) {
+            return null;
+        }
+        boolean sorted = bucket instanceof TreeBucket
+                ? ((TreeBucket) bucket).accepts(key)
+                : bucket instanceof NavigableSet;
+        if (sorted) {
+            // Tree buckets and the TreeSet buckets of MyHashMapTSBuckets can be searched.
+            Node node = ((NavigableSet<Node>) bucket).ceiling(createNode(key, null));
+            return node != null && node.key.equals(key) ? node : null;
+        }
+        for (Node node : bucket) {
+            if (node.key.equals(key)) {
+                return node;
+            }
+        }
         return null;
     }
 
-    // TODO: Implement the methods of the Map61B Interface below
-    // Your code won't compile until you do so!
+    /** Returns the node holding key, looking in the old table too during a resize. */
+    private Node find(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("null keys are not allowed");
+        }
+        if (oldBuckets != null) {
+            rehashStep(REHASH_STEP);
+        }
+        Node node = findIn(buckets, key);
+        if (node == null && oldBuckets != null) {
+            node = findIn(oldBuckets, key);
+        }
+        return node;
+    }
+
+    /** Adds node to its bucket in table, creating, treeifying or untreeifying the bucket as needed. */
+    private void addTo(Collection<Node>[] table, Node node) {
+        int i = indexFor(node.key, table.length);
+        Collection<Node> bucket = table[i];
+        if (bucket == null) {
+            bucket = createBucket();
+            table[i] = bucket;
+        } else if (bucket instanceof TreeBucket && !((TreeBucket) bucket).accepts(node.key)) {
+            bucket = untreeify(bucket);
+            table[i] = bucket;
+        }
+        if (!bucket.add(node) && bucket instanceof TreeBucket) {
+            // The tree holds a different key that compares equal to node.key.
+            bucket = untreeify(bucket);
+            table[i] = bucket;
+            bucket.add(node);
+        } else if (bucket.size() > TREEIFY_THRESHOLD && treeifies() && !(bucket instanceof NavigableSet)) {
+            table[i] = treeify(bucket);
+        }
+    }
+
+    /** Returns bucket as a TreeBucket, or bucket itself if its keys cannot all be compared
+     *  or two of them compare equal without being equal. */
+    private Collection<Node> treeify(Collection<Node> bucket) {
+        Class<?> keyClass = bucket.iterator().next().key.getClass();
+        if (!Comparable.class.isAssignableFrom(keyClass)) {
+            return bucket;
+        }
+        for (Node node : bucket) {
+            if (node.key.getClass() != keyClass) {
+                return bucket;
+            }
+        }
+        TreeBucket tree = new TreeBucket(keyClass);
+        tree.addAll(bucket);
+        return tree.size() == bucket.size() ? tree : bucket;
+    }
+
+    /** Returns the nodes of bucket in a new createBucket() bucket. */
+    private Collection<Node> untreeify(Collection<Node> bucket) {
+        Collection<Node> plain = createBucket();
+        plain.addAll(bucket);
+        return plain;
+    }
+
+    @Override
+    public void clear() {
+        buckets = createTable(buckets.length);
+        oldBuckets = null;
+        size = 0;
+    }
 
+    @Override
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node node = find(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Node node = find(key);
+        if (node != null) {
+            node.value = value;
+            return;
+        }
+        addTo(buckets, createNode(key, value));
+        size += 1;
+        if ((double) size / buckets.length > maxLoad) {
+            resize(buckets.length * 2);
+        }
+    }
+
+    /**
+     * Moves to a table of the given size. In incremental mode this only
+     * starts the move; any earlier move still running is finished first.
+     */
+    private void resize(int tableSize) {
+        if (oldBuckets != null) {
+            rehashStep(oldBuckets.length);
+        }
+        oldBuckets = buckets;
+        rehashIndex = 0;
+        buckets = createTable(tableSize);
+        rehashStep(incremental ? REHASH_STEP : oldBuckets.length);
+    }
+
+    /** Returns the index of the next old bucket a resize in progress will
+     *  move, or -1 if no resize is in progress. */
+    int rehashIndex() {
+        return oldBuckets == null ? -1 : rehashIndex;
+    }
+
+    /**
+     * Moves up to n non-empty buckets of oldBuckets into buckets, skipping at
+     * most 10 * n empty ones, and drops oldBuckets once all are moved.
+     */
+    private void rehashStep(int n) {
+        int emptyVisits = 10 * n;
+        while (n > 0 && rehashIndex < oldBuckets.length) {
+            Collection<Node> bucket = oldBuckets[rehashIndex];
+            oldBuckets[rehashIndex] = null;
+            rehashIndex += 1;
+            if (bucket == null || bucket.isEmpty()) {
+                emptyVisits -= 1;
+                if (emptyVisits == 0) {
+                    break;
+                }
+                continue;
+            }
+            for (Node node : bucket) {
+                addTo(buckets, node);
+            }
+            n -= 1;
+        }
+        if (rehashIndex == oldBuckets.length) {
+            oldBuckets = null;
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        for (K key : this) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    @Override
+    public V remove(K key) {
+        Node node = find(key);
+        if (node == null) {
+            return null;
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        Node node = find(key);
+        if (node == null || (node.value == null ? value != null : !node.value.equals(value))) {
+            return null;
+        }
+        removeNode(node);
+        return node.value;
+    }
+
+    /** Removes node from whichever table holds it. */
+    private void removeNode(Node node) {
+        if (!removeFrom(buckets, node)) {
+            removeFrom(oldBuckets, node);
+        }
+        size -= 1;
+    }
+
+    /** Removes node from its bucket in table, if it is there, untreeifying the bucket if it got small. */
+    private boolean removeFrom(Collection<Node>[] table, Node node) {
+        int i = indexFor(node.key, table.length);
+        Collection<Node> bucket = table[i];
+        if (bucket == null || bucket instanceof TreeBucket && !((TreeBucket) bucket).accepts(node.key)
+                || !bucket.remove(node)) {
+            return false;
+        }
+        if (bucket instanceof TreeBucket && bucket.size() < UNTREEIFY_THRESHOLD) {
+            table[i] = untreeify(bucket);
+        }
+        return true;
+    }
+
+    /**
+     * Iterates over the keys. A resize in progress is finished first, since
+     * iteration is O(n) anyway and it keeps later gets from moving nodes
+     * the iterator has already passed.
+     */
+    @Override
+    public Iterator<K> iterator() {
+        if (oldBuckets != null) {
+            rehashStep(oldBuckets.length);
+        }
+        return new MyHashMapIterator();
+    }
+
+    private class MyHashMapIterator implements Iterator<K> {
+        private int index;
+        private Iterator<Node> current;
+
+        MyHashMapIterator() {
+            index = 0;
+            current = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (index == buckets.length) {
+                    return false;
+                }
+                Collection<Node> bucket = buckets[index];
+                index += 1;
+                current = bucket == null ? null : bucket.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next().key;
+        }
+    }
 }
@@ -38,6 +38,11 @@ public class MyHashMapLLBuckets<K, V> extends MyHashMap<K, V> {
         super(initialSize, maxLoad);
     }
 
+    @Override
+    protected boolean treeifies() {
+        return false;
+    }
+
     @Override
     protected Collection<Node> createBucket() {
         return new LinkedList<>();
@@ -42,6 +42,11 @@ public class MyHashMapTSBuckets<K extends Comparable<K>, V> extends MyHashMap<K,
         super(initialSize, maxLoad);
     }
 
+    @Override
+    protected boolean treeifies() {
+        return false;
+    }
+
     @Override
     protected Collection<Node> createBucket() {
         // This is fancy new-fangled Java that says in plain English:
@@ -0,0 +1,282 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  An open-addressing hash table with Robin Hood linear probing.
+ *
+ *  Entries live in three parallel arrays instead of Node objects inside
+ *  bucket collections: keys[i], values[i] and hashes[i] describe slot i, and
+ *  an empty slot has a null key. A key is placed at the first free slot at or
+ *  after its home slot (hash & mask). On insert, an entry that is further
+ *  from its home than the slot's current occupant takes that slot and the
+ *  occupant moves on. This keeps probe sequences short and sorted by
+ *  distance, so a lookup can stop at the first entry closer to home than
+ *  itself. Removal shifts the following entries back one slot instead of
+ *  leaving tombstones.
+ *
+ *  The cached hashes let a probe skip mismatched slots without calling
+ *  equals, so most lookups read one or two cache lines of the hashes array.
+ *
+ *  Assumes null keys will never be inserted, and does not resize down upon remove().
+ */
+public class RobinHoodHashMap<K, V> implements Map61B<K, V> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int mask; // Invariant: keys.length - 1; keys.length is a power of two.
+    private int size;
+    private final double maxLoad;
+    private int threshold; // resize once size would exceed this
+
+    /** Constructors */
+    public RobinHoodHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public RobinHoodHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * RobinHoodHashMap constructor that creates backing arrays of at least
+     * initialSize slots. The load factor (# items / # slots) is kept <= maxLoad,
+     * which must be below 1 since every item needs its own slot.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor
+     */
+    public RobinHoodHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be between 0 and 1");
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 2;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = newArray(capacity);
+        values = newArray(capacity);
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min(capacity - 1, (int) (capacity * maxLoad));
+    }
+
+    /* Returns a new array for keys or values. It is really an Object[], which
+     * is safe because it never leaves this class. */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(int length) {
+        return (T[]) new Object[length];
+    }
+
+    /** Spreads the hash code so that keys differing in high bits land in different slots. */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns how far the entry in slot i sits from its home slot. */
+    private int distance(int i) {
+        return (i - (hashes[i] & mask)) & mask;
+    }
+
+    /** Returns the slot holding key, or -1. */
+    private int indexOf(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("null keys are not allowed");
+        }
+        int h = hash(key);
+        int i = h & mask;
+        for (int dist = 0; keys[i] != null && distance(i) >= dist; dist++) {
+            if (hashes[i] == h && key.equals(keys[i])) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public V get(K key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("null keys are not allowed");
+        }
+        int h = hash(key);
+        int i = h & mask;
+        int dist = 0;
+        // Until the first displacement, the key may already be in the table.
+        while (keys[i] != null && distance(i) >= dist) {
+            if (hashes[i] == h && key.equals(keys[i])) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+            dist += 1;
+        }
+        if (size >= threshold) {
+            resize(keys.length * 2);
+            put(key, value);
+            return;
+        }
+        insert(i, dist, h, key, value);
+        size += 1;
+    }
+
+    /** Places a new entry at slot i, dist slots from home, pushing richer entries along. */
+    private void insert(int i, int dist, int h, K key, V value) {
+        while (keys[i] != null) {
+            int d = distance(i);
+            if (d < dist) {
+                K k = keys[i];
+                V v = values[i];
+                int oh = hashes[i];
+                keys[i] = key;
+                values[i] = value;
+                hashes[i] = h;
+                key = k;
+                value = v;
+                h = oh;
+                dist = d;
+            }
+            i = (i + 1) & mask;
+            dist += 1;
+        }
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = h;
+    }
+
+    /** Moves every entry into arrays of the given capacity. */
+    private void resize(int capacity) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = oldHashes[j] & mask;
+                int dist = 0;
+                while (keys[i] != null && distance(i) >= dist) {
+                    i = (i + 1) & mask;
+                    dist += 1;
+                }
+                insert(i, dist, oldHashes[j], oldKeys[j], oldValues[j]);
+            }
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        for (K key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Override
+    public V remove(K key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V value = values[i];
+        deleteAt(i);
+        return value;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        int i = indexOf(key);
+        if (i < 0 || (values[i] == null ? value != null : !values[i].equals(value))) {
+            return null;
+        }
+        V old = values[i];
+        deleteAt(i);
+        return old;
+    }
+
+    /** Empties slot i by shifting back the entries after it until one is at home. */
+    private void deleteAt(int i) {
+        int j = (i + 1) & mask;
+        while (keys[j] != null && distance(j) > 0) {
+            keys[i] = keys[j];
+            values[i] = values[j];
+            hashes[i] = hashes[j];
+            i = j;
+            j = (j + 1) & mask;
+        }
+        keys[i] = null;
+        values[i] = null;
+        size -= 1;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new RobinHoodIterator();
+    }
+
+    private class RobinHoodIterator implements Iterator<K> {
+        private int next;
+
+        RobinHoodIterator() {
+            next = advance(0);
+        }
+
+        private int advance(int i) {
+            while (i < keys.length && keys[i] == null) {
+                i += 1;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = keys[next];
+            next = advance(next + 1);
+            return key;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Tests of ConcurrentMyHashMap, alone and under several threads. */
+public class TestConcurrentMyHashMap {
+    private static final int THREADS = 4;
+
+    /** Runs body(t) on THREADS threads, t = 0 .. THREADS - 1, and waits for them all. */
+    private static void runThreads(IntConsumer body) throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> body.accept(id));
+            threads[t].setUncaughtExceptionHandler((th, e) -> failure[0] = e);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure[0] != null) {
+            throw new AssertionError(failure[0]);
+        }
+    }
+
+    @Test
+    public void randomSingleThreadTest() {
+        ConcurrentMyHashMap<Integer, Integer> m = new ConcurrentMyHashMap<>(1, 0.75, 4);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random r = new Random(18);
+        for (int i = 0; i < 100000; i++) {
+            int k = r.nextInt(10000);
+            int op = r.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else if (op == 1) {
+                assertEquals(expected.get(k), m.get(k));
+            } else if (op == 2) {
+                assertEquals(expected.putIfAbsent(k, i), m.putIfAbsent(k, i));
+            } else {
+                m.put(k, i);
+                expected.put(k, i);
+            }
+            assertEquals(expected.size(), m.size());
+        }
+        assertEquals(expected.keySet(), m.keySet());
+        m.clear();
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void concurrentPutTest() throws InterruptedException {
+        ConcurrentMyHashMap<Integer, Integer> m = new ConcurrentMyHashMap<>();
+        runThreads(t -> {
+            for (int i = t; i < 200000; i += THREADS) {
+                m.put(i, i);
+            }
+        });
+        assertEquals(200000, m.size());
+        for (int i = 0; i < 200000; i++) {
+            assertEquals(Integer.valueOf(i), m.get(i));
+        }
+    }
+
+    /* Every thread asks for every key; each value must be computed exactly once. */
+    @Test
+    public void computeIfAbsentOnceTest() throws InterruptedException {
+        ConcurrentMyHashMap<Integer, Integer> m = new ConcurrentMyHashMap<>();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger[] winners = new AtomicInteger[20000];
+        for (int i = 0; i < winners.length; i++) {
+            winners[i] = new AtomicInteger();
+        }
+        runThreads(t -> {
+            for (int i = 0; i < winners.length; i++) {
+                int k = (i * 7 + t * 5003) % winners.length;
+                m.computeIfAbsent(k, key -> {
+                    calls.incrementAndGet();
+                    return key * 2;
+                });
+                if (m.putIfAbsent(k + winners.length, t) == null) {
+                    winners[k].incrementAndGet();
+                }
+            }
+        });
+        assertEquals(winners.length, calls.get());
+        for (int i = 0; i < winners.length; i++) {
+            assertEquals(Integer.valueOf(i * 2), m.get(i));
+            assertEquals(1, winners[i].get());
+        }
+    }
+
+    /* Readers must keep finding keys that were put before they started, while resizes run. */
+    @Test
+    public void readDuringResizeTest() throws InterruptedException {
+        ConcurrentMyHashMap<Integer, Integer> m = new ConcurrentMyHashMap<>(16, 0.75, 4);
+        for (int i = 0; i < 1000; i++) {
+            m.put(-i - 1, i);
+        }
+        AtomicBoolean done = new AtomicBoolean(false);
+        runThreads(t -> {
+            if (t == 0) {
+                for (int i = 0; i < 100000; i++) {
+                    m.put(i, i);
+                }
+                done.set(true);
+            } else {
+                while (!done.get()) {
+                    for (int i = 0; i < 1000; i++) {
+                        assertEquals(Integer.valueOf(i), m.get(-i - 1));
+                    }
+                }
+            }
+        });
+        assertEquals(101000, m.size());
+    }
+
+    /* Writers race the stripe-by-stripe transfers of many resizes. Each
+     * thread must see its own puts and removes at once, and nothing may be
+     * lost or resurrected once the threads are done. */
+    @Test
+    public void writeDuringResizeTest() throws InterruptedException {
+        int perThread = 50000;
+        ConcurrentMyHashMap<Integer, Integer> m = new ConcurrentMyHashMap<>(4, 0.75, 4);
+        runThreads(t -> {
+            Random r = new Random(t);
+            for (int i = t * perThread; i < (t + 1) * perThread; i++) {
+                m.put(i, i);
+                assertEquals(Integer.valueOf(i), m.get(i));
+                if (i % 3 == 0) {
+                    assertEquals(Integer.valueOf(i), m.remove(i));
+                    assertNull(m.get(i));
+                }
+                if (r.nextInt(1000) == 0) {
+                    int k = t * perThread + r.nextInt(i - t * perThread + 1);
+                    assertEquals(k % 3 == 0 ? null : Integer.valueOf(k), m.get(k));
+                }
+            }
+            Set<Integer> keys = m.keySet();
+            for (int i = t * perThread; i < (t + 1) * perThread; i++) {
+                assertEquals(i % 3 != 0, keys.contains(i));
+            }
+        });
+        int expected = 0;
+        for (int i = 0; i < THREADS * perThread; i++) {
+            assertEquals(i % 3 == 0 ? null : Integer.valueOf(i), m.get(i));
+            expected += i % 3 == 0 ? 0 : 1;
+        }
+        assertEquals(expected, m.size());
+        assertEquals(expected, m.keySet().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullValueTest() {
+        new ConcurrentMyHashMap<String, String>().put("a", null);
+    }
+}
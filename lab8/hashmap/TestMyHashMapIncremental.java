@@ -0,0 +1,122 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/** Tests of MyHashMap with incremental resizing, checked against java.util.HashMap. */
+public class TestMyHashMapIncremental {
+
+    private static MyHashMap<String, Integer> incremental(MyHashMap<String, Integer> m) {
+        m.setIncrementalResize(true);
+        return m;
+    }
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(incremental(new MyHashMap<>()));
+        TestMyHashMap.sanitySizeTest(incremental(new MyHashMap<>()));
+        TestMyHashMap.sanityKeySetTest(incremental(new MyHashMapALBuckets<>()));
+        TestMyHashMap.sanityKeySetTest(incremental(new MyHashMapTSBuckets<>()));
+        TestMyHashMap.sanityKeySetTest(incremental(new MyHashMapPQBuckets<>()));
+    }
+
+    @Test
+    public void randomPutRemoveTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(1);
+        b.setIncrementalResize(true);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random r = new Random(16);
+        for (int i = 0; i < 200000; i++) {
+            int k = r.nextInt(50000);
+            int op = r.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(k), b.remove(k));
+            } else if (op == 1) {
+                assertEquals(expected.get(k), b.get(k));
+            } else {
+                b.put(k, i);
+                expected.put(k, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+    }
+
+    /* Iterating in the middle of a resize must see every key exactly once. */
+    @Test
+    public void iterateDuringResizeTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(16);
+        b.setIncrementalResize(true);
+        for (int i = 0; i < 13; i++) {
+            b.put(i, i);
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (int k : b) {
+            assertTrue(seen.add(k));
+            assertEquals(Integer.valueOf(k), b.get(k));
+        }
+        assertEquals(13, seen.size());
+    }
+
+    /* With every old bucket full, each operation moves exactly REHASH_STEP of them. */
+    @Test
+    public void rehashStepTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(64, 1.0);
+        b.setIncrementalResize(true);
+        for (int i = 0; i <= 64; i++) {
+            assertEquals(-1, b.rehashIndex());
+            b.put(i, i);
+        }
+        int step = MyHashMap.REHASH_STEP;
+        for (int expected = step; expected < 64; expected += step) {
+            assertEquals(expected, b.rehashIndex());
+            assertEquals(Integer.valueOf(expected), b.get(expected));
+        }
+        assertEquals(-1, b.rehashIndex());
+        for (int i = 0; i <= 64; i++) {
+            assertEquals(Integer.valueOf(i), b.get(i));
+        }
+    }
+
+    /* With all keys in one old bucket, each operation skips at most
+     * 10 * REHASH_STEP empty buckets rather than scanning the whole table. */
+    @Test
+    public void emptyBucketCapTest() {
+        int length = 1024;
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(length, 1.0);
+        b.setIncrementalResize(true);
+        for (int i = 0; i <= length; i++) {
+            b.put(i * length, i);
+        }
+        int skip = 10 * MyHashMap.REHASH_STEP;
+        int expected = 1 + skip; // bucket 0, then the first run of empty ones
+        while (expected < length) {
+            assertEquals(expected, b.rehashIndex());
+            assertNull(b.get(1));
+            expected += skip;
+        }
+        assertEquals(-1, b.rehashIndex());
+        for (int i = 0; i <= length; i++) {
+            assertEquals(Integer.valueOf(i), b.get(i * length));
+        }
+    }
+
+    @Test
+    public void switchModesTest() {
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(16);
+        b.setIncrementalResize(true);
+        for (int i = 0; i < 1000; i++) {
+            b.put(i, i);
+        }
+        b.setIncrementalResize(false);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), b.remove(i));
+        }
+        assertEquals(0, b.size());
+    }
+}
@@ -0,0 +1,195 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/** Tests of MyHashMap buckets that turn into trees when many keys collide. */
+public class TestMyHashMapTreeify {
+
+    /** A Comparable key whose hash code only has a few values. */
+    private static class Collider implements Comparable<Collider> {
+        final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+
+        @Override
+        public int compareTo(Collider o) {
+            return Integer.compare(id, o.id);
+        }
+    }
+
+    /** A key with one hash code whose compareTo only looks at id / 4, so
+     *  that unequal keys can compare equal. */
+    private static class Coarse implements Comparable<Coarse> {
+        final int id;
+
+        Coarse(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Coarse && ((Coarse) o).id == id;
+        }
+
+        @Override
+        public int compareTo(Coarse o) {
+            return Integer.compare(id / 4, o.id / 4);
+        }
+    }
+
+    /** A key with the same hash codes as Collider that cannot be ordered. */
+    private static class Unordered {
+        final int id;
+
+        Unordered(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Unordered && ((Unordered) o).id == id;
+        }
+    }
+
+    /* With list buckets this would take on the order of 10^10 equals calls. */
+    @Test(timeout = 10000)
+    public void manyCollisionsTest() {
+        MyHashMap<Collider, Integer> m = new MyHashMap<>();
+        int n = 200000;
+        for (int i = 0; i < n; i++) {
+            m.put(new Collider(i), i);
+        }
+        assertEquals(n, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), m.get(new Collider(i)));
+        }
+        assertNull(m.get(new Collider(-1)));
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), m.remove(new Collider(i)));
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void randomCollisionsTest() {
+        for (boolean incremental : new boolean[] {false, true}) {
+            MyHashMap<Collider, Integer> m = new MyHashMap<>();
+            m.setIncrementalResize(incremental);
+            HashMap<Collider, Integer> expected = new HashMap<>();
+            Random r = new Random(19);
+            for (int i = 0; i < 100000; i++) {
+                Collider k = new Collider(r.nextInt(300));
+                int op = r.nextInt(3);
+                if (op == 0) {
+                    assertEquals(expected.remove(k), m.remove(k));
+                } else if (op == 1) {
+                    assertEquals(expected.get(k), m.get(k));
+                } else {
+                    m.put(k, i);
+                    expected.put(k, i);
+                }
+                assertEquals(expected.size(), m.size());
+            }
+            assertEquals(expected.keySet(), m.keySet());
+        }
+    }
+
+    /* Keys of different classes in one bucket force it back to a plain bucket. */
+    @Test
+    public void mixedKeyClassesTest() {
+        MyHashMap<Object, Integer> m = new MyHashMap<>(4, 100);
+        for (int i = 0; i < 50; i++) {
+            m.put(new Collider(i), i);
+        }
+        for (int i = 0; i < 50; i++) {
+            m.put(new Unordered(i), -i);
+        }
+        assertEquals(100, m.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), m.get(new Collider(i)));
+            assertEquals(Integer.valueOf(-i), m.get(new Unordered(i)));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(-i), m.remove(new Unordered(i)));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), m.remove(new Collider(i)));
+        }
+        assertEquals(0, m.size());
+    }
+
+    /* Keys that compare equal without being equal must all be kept, whether
+     * they arrive before or after their bucket is treeified. */
+    @Test
+    public void inconsistentCompareToTest() {
+        for (int start : new int[] {0, 3}) {
+            MyHashMap<Coarse, Integer> m = new MyHashMap<>();
+            HashMap<Coarse, Integer> expected = new HashMap<>();
+            for (int i = start; i < 100; i += 4) {
+                m.put(new Coarse(i), i);
+                expected.put(new Coarse(i), i);
+            }
+            for (int i = 0; i < 100; i++) {
+                m.put(new Coarse(i), -i);
+                expected.put(new Coarse(i), -i);
+                assertEquals(expected.size(), m.size());
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals(Integer.valueOf(-i), m.get(new Coarse(i)));
+            }
+            assertEquals(expected.keySet(), m.keySet());
+            for (int i = 0; i < 100; i += 2) {
+                assertEquals(Integer.valueOf(-i), m.remove(new Coarse(i)));
+            }
+            assertEquals(50, m.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i % 2 == 0 ? null : Integer.valueOf(-i), m.get(new Coarse(i)));
+            }
+        }
+    }
+
+    /* The bucket-type subclasses opt out of treeifying but still handle collisions. */
+    @Test
+    public void bucketSubclassesTest() {
+        List<MyHashMap<Coarse, Integer>> maps = Arrays.asList(
+            new MyHashMapALBuckets<>(), new MyHashMapLLBuckets<>(), new MyHashMapHSBuckets<>());
+        for (MyHashMap<Coarse, Integer> m : maps) {
+            assertFalse(m.treeifies());
+            for (int i = 0; i < 100; i++) {
+                m.put(new Coarse(i), i);
+            }
+            assertEquals(100, m.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(Integer.valueOf(i), m.get(new Coarse(i)));
+            }
+        }
+    }
+}
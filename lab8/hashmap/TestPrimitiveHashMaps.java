@@ -0,0 +1,87 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/** Tests of IntIntHashMap, IntDoubleHashMap and LongObjectHashMap against java.util.HashMap. */
+public class TestPrimitiveHashMaps {
+
+    @Test
+    public void intIntRandomTest() {
+        IntIntHashMap m = new IntIntHashMap(2);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random r = new Random(17);
+        for (int i = 0; i < 200000; i++) {
+            int k = r.nextInt(20000) - 10000;
+            int op = r.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(k) != null, m.remove(k));
+            } else if (op == 1) {
+                assertEquals(expected.containsKey(k), m.containsKey(k));
+                assertEquals((int) expected.getOrDefault(k, -1), m.getOrDefault(k, -1));
+            } else if (op == 2) {
+                m.put(k, i);
+                expected.put(k, i);
+            } else {
+                assertEquals((int) expected.merge(k, 3, Integer::sum), m.addTo(k, 3));
+            }
+            assertEquals(expected.size(), m.size());
+        }
+        HashMap<Integer, Integer> seen = new HashMap<>();
+        m.forEach((k, v) -> assertNull(seen.put(k, v)));
+        assertEquals(expected, seen);
+        m.clear();
+        assertEquals(0, m.size());
+        assertFalse(m.containsKey(0));
+    }
+
+    @Test
+    public void intDoubleTest() {
+        IntDoubleHashMap m = new IntDoubleHashMap();
+        for (int i = 0; i < 1000; i++) {
+            m.put(i, i / 2.0);
+        }
+        assertEquals(1000, m.size());
+        assertEquals(250.0, m.get(500), 0.0);
+        assertEquals(0.0, m.get(5000), 0.0);
+        assertEquals(1.5, m.addTo(5000, 1.5), 0.0);
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(m.remove(i));
+        }
+        assertFalse(m.remove(0));
+        double[] sum = {0};
+        m.forEach((k, v) -> sum[0] += v);
+        assertEquals(1.5 + 125000.0, sum[0], 1e-9);
+    }
+
+    @Test
+    public void longObjectRandomTest() {
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+        HashMap<Long, String> expected = new HashMap<>();
+        Random r = new Random(18);
+        for (int i = 0; i < 200000; i++) {
+            // Keys share their low 32 bits, so only the high half tells them apart.
+            long k = ((long) r.nextInt(5000) << 32) | 7;
+            if (r.nextInt(8) == 0) {
+                k = 0;
+            }
+            int op = r.nextInt(3);
+            if (op == 0) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else if (op == 1) {
+                assertEquals(expected.get(k), m.get(k));
+            } else {
+                m.put(k, "v" + i);
+                expected.put(k, "v" + i);
+            }
+            assertEquals(expected.size(), m.size());
+        }
+        Map<Long, String> seen = new HashMap<>();
+        m.forEach((k, v) -> assertNull(seen.put(k, v)));
+        assertEquals(expected, seen);
+    }
+}
@@ -0,0 +1,114 @@
+package hashmap;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/** Tests of RobinHoodHashMap, checked against java.util.HashMap. */
+public class TestRobinHoodHashMap {
+
+    /** A key whose hash code only has a handful of values, to force long probe runs. */
+    private static class Collider {
+        final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 7;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+    }
+
+    @Test
+    public void sanityTest() {
+        RobinHoodHashMap<String, Integer> b = new RobinHoodHashMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, i);
+            assertEquals(Integer.valueOf(i), b.get("hi" + i));
+        }
+        assertEquals(455, b.size());
+        b.put("hi3", -3);
+        assertEquals(455, b.size());
+        assertEquals(Integer.valueOf(-3), b.get("hi3"));
+        assertFalse(b.containsKey("waterYouDoingHere"));
+        b.clear();
+        assertEquals(0, b.size());
+        for (int i = 0; i < 455; i++) {
+            assertFalse(b.containsKey("hi" + i));
+        }
+    }
+
+    @Test
+    public void randomPutRemoveTest() {
+        for (double load : new double[] {0.5, 0.75, 0.95}) {
+            RobinHoodHashMap<Integer, Integer> b = new RobinHoodHashMap<>(4, load);
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            Random r = new Random(15);
+            for (int i = 0; i < 100000; i++) {
+                int k = r.nextInt(10000);
+                int op = r.nextInt(3);
+                if (op == 0) {
+                    assertEquals(expected.remove(k), b.remove(k));
+                } else if (op == 1) {
+                    assertEquals(expected.get(k), b.get(k));
+                } else {
+                    b.put(k, i);
+                    expected.put(k, i);
+                }
+                assertEquals(expected.size(), b.size());
+            }
+            assertEquals(expected.keySet(), b.keySet());
+        }
+    }
+
+    @Test
+    public void collidingKeysTest() {
+        RobinHoodHashMap<Collider, Integer> b = new RobinHoodHashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            b.put(new Collider(i), i);
+        }
+        for (int i = 0; i < 2000; i += 3) {
+            assertEquals(Integer.valueOf(i), b.remove(new Collider(i)));
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i % 3 == 0 ? null : Integer.valueOf(i), b.get(new Collider(i)));
+        }
+    }
+
+    @Test
+    public void iteratorTest() {
+        RobinHoodHashMap<String, Integer> b = new RobinHoodHashMap<>();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            b.put("k" + i, i);
+            expected.add("k" + i);
+        }
+        Set<String> seen = new HashSet<>();
+        for (String key : b) {
+            assertTrue(seen.add(key));
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    public void removeIfMappedTest() {
+        RobinHoodHashMap<String, String> q = new RobinHoodHashMap<>();
+        q.put("a", "x");
+        assertNull(q.remove("a", "y"));
+        assertTrue(q.containsKey("a"));
+        assertEquals("x", q.remove("a", "x"));
+        assertFalse(q.containsKey("a"));
+        assertNull(q.remove("a"));
+    }
+}
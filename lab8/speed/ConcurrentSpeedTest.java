@@ -0,0 +1,119 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.Set;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.ConcurrentMyHashMap;
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+
+/** Performs a timing test of ConcurrentMyHashMap against a MyHashMap behind
+ *  one lock, with several threads doing a mix of 80% gets and 20% puts.
+ */
+public class ConcurrentSpeedTest {
+    private static final int KEY_RANGE = 1 << 20;
+
+    /**
+     * Requests user input and performs the tests. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program runs T threads that each do N operations,\n"
+                + " 80% gets and 20% puts of random Integer keys, on a shared map.\n"
+                + " (" + Runtime.getRuntime().availableProcessors() + " processors available)\n");
+        System.out.print("What would you like T to be?: ");
+        int T = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # operations per thread: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            System.out.printf("hashmap.MyHashMap behind one lock: %.2f sec\n",
+                    timeMixed(new LockedMap<>(new MyHashMap<>()), T, N));
+            System.out.printf("hashmap.ConcurrentMyHashMap: %.2f sec\n",
+                    timeMixed(new ConcurrentMyHashMap<>(), T, N));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns the time needed for T threads to do N mixed operations each on map. */
+    public static double timeMixed(Map61B<Integer, Integer> map, int T, int N)
+            throws InterruptedException {
+        Thread[] threads = new Thread[T];
+        for (int t = 0; t < T; t++) {
+            Random r = new Random(t);
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < N; i++) {
+                    int key = r.nextInt(KEY_RANGE);
+                    if (r.nextInt(5) == 0) {
+                        map.put(key, i);
+                    } else {
+                        map.get(key);
+                    }
+                }
+            });
+        }
+        Stopwatch sw = new Stopwatch();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return sw.elapsedTime();
+    }
+
+    /** Wraps a Map61B so that every call is made under one lock. */
+    private static class LockedMap<K, V> implements Map61B<K, V> {
+        private final Map61B<K, V> map;
+
+        LockedMap(Map61B<K, V> map) {
+            this.map = map;
+        }
+
+        public synchronized void clear() {
+            map.clear();
+        }
+
+        public synchronized boolean containsKey(K key) {
+            return map.containsKey(key);
+        }
+
+        public synchronized V get(K key) {
+            return map.get(key);
+        }
+
+        public synchronized int size() {
+            return map.size();
+        }
+
+        public synchronized void put(K key, V value) {
+            map.put(key, value);
+        }
+
+        public synchronized Set<K> keySet() {
+            return map.keySet();
+        }
+
+        public synchronized V remove(K key) {
+            return map.remove(key);
+        }
+
+        public synchronized V remove(K key, V value) {
+            return map.remove(key, value);
+        }
+
+        public Iterator<K> iterator() {
+            return keySet().iterator();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package speed;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Scanner;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.IntDoubleHashMap;
+import hashmap.IntIntHashMap;
+import hashmap.LongObjectHashMap;
+import hashmap.MyHashMap;
+
+/** Performs a timing test of the primitive-keyed maps against boxed maps
+ *  holding the same keys. Each map gets N / 2 puts of random keys followed by
+ *  N gets, half of them for keys that were put.
+ */
+public class PrimitiveSpeedTest {
+    /**
+     * Requests user input and performs the tests. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program puts N random int and long keys\n"
+                + " into primitive and boxed maps and then looks them up.\n");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # keys to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            int[] keys = randomInts(N);
+
+            System.out.printf("hashmap.MyHashMap<Integer, Integer>: %.2f sec\n",
+                    timeBoxed(new MyHashMap<>(), keys));
+            System.out.printf("Java's Built-in HashMap<Integer, Integer>: %.2f sec\n",
+                    timeBoxed(new HashMap<>(), keys));
+            System.out.printf("hashmap.IntIntHashMap: %.2f sec\n",
+                    timeIntInt(new IntIntHashMap(), keys));
+            System.out.printf("hashmap.MyHashMap<Integer, Double>: %.2f sec\n",
+                    timeBoxedDouble(new MyHashMap<>(), keys));
+            System.out.printf("hashmap.IntDoubleHashMap: %.2f sec\n",
+                    timeIntDouble(new IntDoubleHashMap(), keys));
+            System.out.printf("hashmap.MyHashMap<Long, Integer>: %.2f sec\n",
+                    timeBoxedLong(new MyHashMap<>(), keys));
+            System.out.printf("hashmap.LongObjectHashMap<Integer>: %.2f sec\n",
+                    timeLongObject(new LongObjectHashMap<>(), keys));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns N random ints. The first N / 2 are the keys that are put. */
+    private static int[] randomInts(int N) {
+        Random r = new Random(N);
+        int[] keys = new int[N];
+        for (int i = 0; i < N; i++) {
+            keys[i] = r.nextInt();
+        }
+        return keys;
+    }
+
+    /** Returns time needed to put the first half of keys and then get all of them. */
+    public static double timeBoxed(MyHashMap<Integer, Integer> map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put(keys[i], i);
+        }
+        for (int key : keys) {
+            map.get(key);
+        }
+        return sw.elapsedTime();
+    }
+
+    /** As above, for Java's HashMap. */
+    public static double timeBoxed(HashMap<Integer, Integer> map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put(keys[i], i);
+        }
+        for (int key : keys) {
+            map.get(key);
+        }
+        return sw.elapsedTime();
+    }
+
+    /** As above, for IntIntHashMap. */
+    public static double timeIntInt(IntIntHashMap map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put(keys[i], i);
+        }
+        for (int key : keys) {
+            map.get(key);
+        }
+        return sw.elapsedTime();
+    }
+
+    /** As above, with double values. */
+    public static double timeBoxedDouble(MyHashMap<Integer, Double> map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put(keys[i], i * 0.5);
+        }
+        for (int key : keys) {
+            map.get(key);
+        }
+        return sw.elapsedTime();
+    }
+
+    /** As above, for IntDoubleHashMap. */
+    public static double timeIntDouble(IntDoubleHashMap map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put(keys[i], i * 0.5);
+        }
+        for (int key : keys) {
+            map.get(key);
+        }
+        return sw.elapsedTime();
+    }
+
+    /** As above, with the keys widened to long. */
+    public static double timeBoxedLong(MyHashMap<Long, Integer> map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put((long) keys[i] << 16, i);
+        }
+        for (int key : keys) {
+            map.get((long) key << 16);
+        }
+        return sw.elapsedTime();
+    }
+
+    /** As above, for LongObjectHashMap. */
+    public static double timeLongObject(LongObjectHashMap<Integer> map, int[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length / 2; i++) {
+            map.put((long) keys[i] << 16, i);
+        }
+        for (int key : keys) {
+            map.get((long) key << 16);
+        }
+        return sw.elapsedTime();
+    }
+}
@@ -0,0 +1,196 @@
+package bench;
+
+import hashmap.Map61B;
+import hashmap.MyHashMapALBuckets;
+import hashmap.MyHashMapHSBuckets;
+import hashmap.MyHashMapLLBuckets;
+import hashmap.MyHashMapPQBuckets;
+import hashmap.MyHashMapTSBuckets;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the MyHashMap bucket variants against java.util.HashMap, all
+ * with String keys of keyLength random lowercase letters and Integer
+ * values. Each benchmark but fill runs against a map already holding size
+ * entries, built with the given maximum load factor. get looks up keys of
+ * which a fraction hitRatio are in the map; putRemove adds a key that is
+ * not in the map and removes it again, so the size stays steady; fill
+ * measures building the whole map from empty.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class BucketsBenchmark {
+    static final String[] IMPLS = {"ALBuckets", "LLBuckets", "TSBuckets", "HSBuckets", "PQBuckets", "java.util.HashMap"};
+
+    @Param({"ALBuckets", "LLBuckets", "TSBuckets", "HSBuckets", "PQBuckets", "java.util.HashMap"})
+    public String impl;
+
+    @Param({"8", "32"})
+    public int keyLength;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"0.75", "4.0"})
+    public double loadFactor;
+
+    @Param({"0.5", "1.0"})
+    public double hitRatio;
+
+    private String[] keys;
+    private String[] queries;
+    private String[] absent;
+    private Map61B<String, Integer> map;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random r = new Random(42);
+        keys = randomKeys(r, size, keyLength, new HashSet<>());
+        Set<String> used = new HashSet<>();
+        for (String key : keys) {
+            used.add(key);
+        }
+        absent = randomKeys(r, 1024, keyLength, used);
+        map = create(impl, loadFactor);
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], i);
+        }
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = r.nextDouble() < hitRatio ? keys[r.nextInt(size)] : absent[i];
+        }
+    }
+
+    /** Look up a key, present with probability hitRatio. */
+    @Benchmark
+    public Integer get() {
+        next = (next + 1) & (queries.length - 1);
+        return map.get(queries[next]);
+    }
+
+    /** Add a key that is not in the map, then remove it. */
+    @Benchmark
+    public Integer putRemove() {
+        next = (next + 1) & (absent.length - 1);
+        map.put(absent[next], next);
+        return map.remove(absent[next]);
+    }
+
+    /** Build a map of size entries from empty. Reported throughput is whole fills. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Map61B<String, Integer> fill() {
+        Map61B<String, Integer> m = create(impl, loadFactor);
+        for (int i = 0; i < size; i++) {
+            m.put(keys[i], i);
+        }
+        return m;
+    }
+
+    /** Returns n distinct random lowercase strings of the given length that are not in used. */
+    static String[] randomKeys(Random r, int n, int length, Set<String> used) {
+        String[] result = new String[n];
+        Set<String> seen = new HashSet<>();
+        char[] buf = new char[length];
+        int i = 0;
+        while (i < n) {
+            for (int j = 0; j < length; j++) {
+                buf[j] = (char) ('a' + r.nextInt(26));
+            }
+            String s = new String(buf);
+            if (!used.contains(s) && seen.add(s)) {
+                result[i] = s;
+                i += 1;
+            }
+        }
+        return result;
+    }
+
+    static Map61B<String, Integer> create(String impl, double loadFactor) {
+        switch (impl) {
+            case "ALBuckets":
+                return new MyHashMapALBuckets<>(16, loadFactor);
+            case "LLBuckets":
+                return new MyHashMapLLBuckets<>(16, loadFactor);
+            case "TSBuckets":
+                return new MyHashMapTSBuckets<>(16, loadFactor);
+            case "HSBuckets":
+                return new MyHashMapHSBuckets<>(16, loadFactor);
+            case "PQBuckets":
+                return new MyHashMapPQBuckets<>(16, loadFactor);
+            case "java.util.HashMap":
+                return new JavaHashMap<>(16, loadFactor);
+            default:
+                throw new IllegalArgumentException("Unknown map: " + impl);
+        }
+    }
+
+    /** Adapts java.util.HashMap to hashmap.Map61B. */
+    private static class JavaHashMap<K, V> implements Map61B<K, V> {
+        private final HashMap<K, V> m;
+
+        JavaHashMap(int initialSize, double loadFactor) {
+            m = new HashMap<>(initialSize, (float) loadFactor);
+        }
+
+        public void clear() {
+            m.clear();
+        }
+
+        public boolean containsKey(K key) {
+            return m.containsKey(key);
+        }
+
+        public V get(K key) {
+            return m.get(key);
+        }
+
+        public int size() {
+            return m.size();
+        }
+
+        public void put(K key, V value) {
+            m.put(key, value);
+        }
+
+        public Set<K> keySet() {
+            return m.keySet();
+        }
+
+        public V remove(K key) {
+            return m.remove(key);
+        }
+
+        public V remove(K key, V value) {
+            return m.remove(key, value) ? value : null;
+        }
+
+        public Iterator<K> iterator() {
+            return m.keySet().iterator();
+        }
+    }
+}
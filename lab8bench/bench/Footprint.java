@@ -0,0 +1,51 @@
+package bench;
+
+import hashmap.Map61B;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+/**
+ * Prints how many bytes each map spends per entry on top of its keys and
+ * values, measured by walking the object graph with JOL. This is the cost
+ * of the table, the nodes and the bucket collections; the keys and values
+ * themselves are the same for every map and are subtracted out.
+ */
+public class Footprint {
+    private static final int[] SIZES = {1000, 100000};
+    private static final double[] LOAD_FACTORS = {0.75, 4.0};
+    private static final int KEY_LENGTH = 8;
+
+    public static void main(String[] args) {
+        print();
+    }
+
+    public static void print() {
+        // The TS and PQ buckets hold lambda comparators, whose fields JOL can only read this way.
+        System.setProperty("jol.magicFieldOffset", "true");
+        System.out.printf("%n%-20s %10s %10s %16s%n", "map", "size", "maxLoad", "bytes/entry");
+        for (int size : SIZES) {
+            String[] keys = BucketsBenchmark.randomKeys(new Random(42), size, KEY_LENGTH, new HashSet<>());
+            for (double loadFactor : LOAD_FACTORS) {
+                for (String impl : BucketsBenchmark.IMPLS) {
+                    Map61B<String, Integer> map = BucketsBenchmark.create(impl, loadFactor);
+                    Object[] contents = new Object[2 * size];
+                    for (int i = 0; i < size; i++) {
+                        Integer value = 1000 + i; // above the Integer cache, so every value is its own object
+                        map.put(keys[i], value);
+                        contents[2 * i] = keys[i];
+                        contents[2 * i + 1] = value;
+                    }
+                    long total = GraphLayout.parseInstance(map).totalSize();
+                    long payload = GraphLayout.parseInstance((Object) contents).totalSize()
+                            - VM.current().sizeOf(contents);
+                    System.out.printf("%-20s %10d %10.2f %16.1f%n",
+                            impl, size, loadFactor, (double) (total - payload) / size);
+                }
+            }
+        }
+    }
+}
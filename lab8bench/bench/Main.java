@@ -0,0 +1,30 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the bucket benchmarks with allocation profiling (-prof gc), writes
+ * the results as JSON and then prints the bytes per entry of each map, so
+ * the bucket types can be compared on speed, garbage and memory together.
+ * ARGS are passed through as ordinary JMH command line options.
+ */
+public class Main {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opts = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BucketsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("buckets-bench.json")
+                .build();
+        new Runner(opts).run();
+        Footprint.print();
+    }
+}
@@ -1,20 +1,23 @@
 package deque;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
     private T[] items;
     private int size;
     private int front;
-    private int back;
     private int capacity;
+    private int mask;
     /** Create an Array Deque*/
     public ArrayDeque(){
         items = (T[]) new Object[8];
         size = 0;
-        front = -1; // Invariant: front always points to the pos of first item. -1 when deque is empty
-        back = -1; // Invariant: back always points to the pos of the back item. -1 when deque is empty
-        capacity = 8;
+        front = 0; // Invariant: front always points to the pos of the first item; items follow it at increasing pos.
+        capacity = 8; // Invariant: capacity is always a power of two, so pos & mask wraps it around the array.
+        mask = capacity - 1;
     }
 
     @Override
@@ -22,12 +25,9 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         if (size() == capacity) {
             resize(capacity * 2);
         }
-        front = (front + 1) % capacity;
+        front = (front - 1) & mask;
         items[front] = item;
         size += 1;
-        if (size == 1) {
-            back = front;
-        }
     }
 
     @Override
@@ -35,17 +35,8 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         if (size() == capacity) {
             resize(capacity * 2);
         }
-        if (isEmpty()) {
-            back = 0;
-        }
-        else {
-            back = (back - 1 + capacity) % capacity;
-        }
-        items[back] = item;
+        items[(front + size) & mask] = item;
         size += 1;
-        if (size == 1) {
-            front = back;
-        }
     }
 
     @Override
@@ -61,7 +52,7 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
     @Override
     public void printDeque() {
         for (int i = 0; i < size; i++){
-            int ptr = (front + capacity - i) % capacity;
+            int ptr = (front + i) & mask;
             System.out.print(items[ptr] + " ");
         }
         System.out.println();
@@ -73,16 +64,10 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
             return null;
         }
         T retItem = items[front];
-        front = (front + capacity - 1) % capacity;
+        items[front] = null;
+        front = (front + 1) & mask;
         size -= 1;
-        if (reachCapacityMinimum()) {
-            int newCapacity = size;
-            resize(newCapacity);
-        }
-        if (isEmpty()) {
-            back = -1;
-            front = -1;
-        }
+        shrinkIfSparse();
         return retItem;
     }
 
@@ -91,30 +76,68 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         if (isEmpty()) {
             return null;
         }
+        int back = (front + size - 1) & mask;
         T retItem = items[back];
-        back = (back + 1) % capacity;
+        items[back] = null;
         size -= 1;
-        if (reachCapacityMinimum()) {
-            int newCapacity = size;
-            resize(newCapacity);
-        }
-        if (isEmpty()) {
-            back = -1;
-            front = -1;
-        }
+        shrinkIfSparse();
         return retItem;
     }
 
     @Override
     public T get(int index) {
-        if (isEmpty()) {
+        if (index < 0 || index >= size) {
             return null;
         }
-        return items[(front + capacity - index) % capacity];
+        return items[(front + index) & mask];
+    }
+
+    /** Adds every item of src to the back of the deque, in order. */
+    public void addAllLast(T[] src) {
+        addAllLast(src, src.length);
+    }
+
+    /** Adds every item of src to the back of the deque, in iteration order. */
+    public void addAllLast(Collection<? extends T> src) {
+        // toArray gives an Object[], which the private overload copies from without a cast.
+        Object[] a = src.toArray();
+        addAllLast(a, a.length);
+    }
+
+    /**
+     * Removes items from the front of the deque into dest, starting at dest[0],
+     * until the deque is empty or dest is full.
+     * @return the number of items moved
+     */
+    public int drainTo(T[] dest) {
+        int n = Math.min(size, dest.length);
+        copyTo(dest, n);
+        clearFront(n);
+        return n;
+    }
+
+    /**
+     * Removes every item from the deque and adds it to c, front to back.
+     * @return the number of items moved
+     */
+    public int drainTo(Collection<? super T> c) {
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            c.add(items[(front + i) & mask]);
+        }
+        clearFront(n);
+        return n;
+    }
+
+    /** Returns a new array holding the items of the deque from front to back. */
+    public Object[] toArray() {
+        Object[] a = new Object[size];
+        copyTo(a, size);
+        return a;
     }
 
     /** Return an iterator of the ArrayDeque that supports enhanced for loop
-     * from queue back to front*/
+     * from queue front to back*/
 
     private class ArrayDequeIterator implements Iterator<T> {
         private int pos;
@@ -128,7 +151,10 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         }
 
         public T next() {
-            T returnItem = items[(front + capacity - pos) % capacity];
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T returnItem = items[(front + pos) & mask];
             pos += 1;
             return returnItem;
         }
@@ -200,25 +226,56 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
     }
 
 
-    private float getUsageFactor() {
-        return (float) size / capacity;
-    }
-
     private boolean reachCapacityMinimum() {
         float usageFactor;
         usageFactor = (float) size / capacity;
         return size > 16 && usageFactor < 0.25;
     }
 
+    private void shrinkIfSparse() {
+        while (reachCapacityMinimum()) {
+            resize(capacity / 2);
+        }
+    }
+
+    private void addAllLast(Object[] src, int n) {
+        int newCapacity = capacity;
+        while (newCapacity < size + n) {
+            newCapacity *= 2;
+        }
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+        int back = (front + size) & mask;
+        int firstPart = Math.min(n, capacity - back);
+        System.arraycopy(src, 0, items, back, firstPart);
+        System.arraycopy(src, firstPart, items, 0, n - firstPart);
+        size += n;
+    }
+
+    /** Copies the first n items into dest[0..n) using at most two arraycopy calls. */
+    private void copyTo(Object[] dest, int n) {
+        int firstPart = Math.min(n, capacity - front);
+        System.arraycopy(items, front, dest, 0, firstPart);
+        System.arraycopy(items, 0, dest, firstPart, n - firstPart);
+    }
+
+    /** Drops the first n items, nulling out their slots. */
+    private void clearFront(int n) {
+        int firstPart = Math.min(n, capacity - front);
+        Arrays.fill(items, front, front + firstPart, null);
+        Arrays.fill(items, 0, n - firstPart, null);
+        front = (front + n) & mask;
+        size -= n;
+        shrinkIfSparse();
+    }
+
     private void resize(int newCapacity){
         T[] a = (T[]) new Object[newCapacity];
-        for (int pos = 0; pos < size; pos++) {
-            int currentAdd = ((back + pos) % capacity);
-            a[pos] = items[currentAdd];
-        }
-        back = 0;
-        front = size - 1;
+        copyTo(a, size);
+        front = 0;
         items = a;
         capacity = newCapacity;
+        mask = newCapacity - 1;
     }
 }
@@ -96,6 +96,46 @@ public class ArrayDequeTest {
             assertEquals("Should have the same value", i, (int) ad1.removeLast());
         }
     }
-}
-
 
+    @Test
+    /* Bulk add across the wrap-around point, then drain in batches. */
+    public void bulkAddDrainTest() {
+        ArrayDeque<Integer> ad1 = new ArrayDeque<>();
+        for (int i = 0; i < 5; i++) {
+            ad1.addFirst(-i - 1);
+        }
+        Integer[] batch = new Integer[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i;
+        }
+        ad1.addAllLast(batch);
+        ad1.addAllLast(java.util.Arrays.asList(1000, 1001, 1002));
+        assertEquals(1008, ad1.size());
+        Object[] all = ad1.toArray();
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(ad1.get(i), all[i]);
+        }
+        assertEquals(Integer.valueOf(-5), ad1.get(0));
+        assertEquals(Integer.valueOf(1002), ad1.get(1007));
+
+        Integer[] dest = new Integer[100];
+        int expected = -5;
+        while (ad1.size() > 100) {
+            assertEquals(100, ad1.drainTo(dest));
+            for (Integer x : dest) {
+                assertEquals(Integer.valueOf(expected), x);
+                expected += 1;
+            }
+        }
+        java.util.List<Integer> rest = new java.util.ArrayList<>();
+        assertEquals(8, ad1.drainTo(rest));
+        assertEquals(8, rest.size());
+        assertEquals(Integer.valueOf(expected), rest.get(0));
+        assertTrue(ad1.isEmpty());
+
+        ad1.addFirst(7);
+        ad1.addLast(8);
+        assertEquals(Integer.valueOf(7), ad1.removeFirst());
+        assertEquals(Integer.valueOf(8), ad1.removeFirst());
+    }
+}
@@ -0,0 +1,226 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An array deque that stores its items in fixed-size blocks instead of one
+ * contiguous array. Growing or shrinking allocates or frees a single block,
+ * so no add ever copies the items already in the deque. The only copying is
+ * of the block map, which holds one reference per BLOCK_SIZE items.
+ */
+public class ChunkedArrayDeque<T> implements Deque<T>, Iterable<T> {
+    private static final int BLOCK_SHIFT = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private Object[][] blocks; // Only ever holds Ts; read them with itemAt.
+    private Object[] spare;
+    private int size;
+    private int head; // Invariant: head is the pos of the first item, counted from blocks[0][0].
+
+    /** Create an empty ChunkedArrayDeque. */
+    public ChunkedArrayDeque() {
+        blocks = new Object[8][];
+        head = (blocks.length / 2) * BLOCK_SIZE;
+        size = 0;
+    }
+
+    @Override
+    public void addFirst(T item) {
+        if (head == 0) {
+            recenter();
+        }
+        head -= 1;
+        blockFor(head)[head & BLOCK_MASK] = item;
+        size += 1;
+    }
+
+    @Override
+    public void addLast(T item) {
+        if (((head + size) >>> BLOCK_SHIFT) == blocks.length) {
+            recenter();
+        }
+        int pos = head + size;
+        blockFor(pos)[pos & BLOCK_MASK] = item;
+        size += 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void printDeque() {
+        for (T item : this) {
+            System.out.print(item + " ");
+        }
+        System.out.println();
+    }
+
+    @Override
+    public T removeFirst() {
+        if (isEmpty()) {
+            return null;
+        }
+        T retItem = itemAt(head);
+        blocks[head >>> BLOCK_SHIFT][head & BLOCK_MASK] = null;
+        head += 1;
+        size -= 1;
+        if ((head & BLOCK_MASK) == 0) {
+            release((head - 1) >>> BLOCK_SHIFT);
+        }
+        return retItem;
+    }
+
+    @Override
+    public T removeLast() {
+        if (isEmpty()) {
+            return null;
+        }
+        int pos = head + size - 1;
+        T retItem = itemAt(pos);
+        blocks[pos >>> BLOCK_SHIFT][pos & BLOCK_MASK] = null;
+        size -= 1;
+        if ((pos & BLOCK_MASK) == 0) {
+            release(pos >>> BLOCK_SHIFT);
+        }
+        return retItem;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return itemAt(head + index);
+    }
+
+    private class ChunkedArrayDequeIterator implements Iterator<T> {
+        private int pos;
+
+        public ChunkedArrayDequeIterator() {
+            pos = 0;
+        }
+
+        public boolean hasNext() {
+            return pos < size;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int p = head + pos;
+            pos += 1;
+            return itemAt(p);
+        }
+    }
+
+    public Iterator<T> iterator() {
+        return new ChunkedArrayDequeIterator();
+    }
+
+    /**
+     * o is considered equal if it is an iterable Deque and if it contains the
+     * same contents in the same order.
+     * @param o
+     * @return whether or not the parameter o is equal to the Deque.
+     */
+    public boolean equals(Object o) {
+        if (!(o instanceof Deque) || !(o instanceof Iterable)) {
+            return false;
+        }
+        Deque<?> other = (Deque<?>) o;
+        if (other.size() != size) {
+            return false;
+        }
+        Iterator<T> thisIter = this.iterator();
+        Iterator<?> otherIter = ((Iterable<?>) o).iterator();
+        while (thisIter.hasNext()) {
+            T thisElem = thisIter.next();
+            Object otherElem = otherIter.next();
+            if (thisElem == null) {
+                if (otherElem != null) {
+                    return false;
+                }
+            } else if (!thisElem.equals(otherElem)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code computed from the items in order, the same way
+     * java.util.List does, so that deques equal by equals hash alike.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (T item : this) {
+            hash = 31 * hash + (item == null ? 0 : item.hashCode());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the item at pos. The blocks are plain Object arrays, since Java
+     * cannot create arrays of T, but only Ts are ever stored in them.
+     */
+    @SuppressWarnings("unchecked")
+    private T itemAt(int pos) {
+        return (T) blocks[pos >>> BLOCK_SHIFT][pos & BLOCK_MASK];
+    }
+
+    /** Returns the block holding pos, allocating it if it is not there yet. */
+    private Object[] blockFor(int pos) {
+        int b = pos >>> BLOCK_SHIFT;
+        if (blocks[b] == null) {
+            if (spare != null) {
+                blocks[b] = spare;
+                spare = null;
+            } else {
+                blocks[b] = new Object[BLOCK_SIZE];
+            }
+        }
+        return blocks[b];
+    }
+
+    /**
+     * Frees an emptied block. One block is kept aside as a spare so that a
+     * deque hovering around a block boundary does not allocate on every add.
+     */
+    private void release(int b) {
+        if (spare == null) {
+            spare = blocks[b];
+        }
+        blocks[b] = null;
+    }
+
+    /**
+     * Moves the used blocks to the middle of the block map, doubling the map
+     * first if they take up more than half of it. Only block references are
+     * copied, never items.
+     */
+    private void recenter() {
+        int first = head >>> BLOCK_SHIFT;
+        int last = size == 0 ? first : (head + size - 1) >>> BLOCK_SHIFT;
+        int used = last - first + 1;
+        int newLength = blocks.length;
+        if (used * 2 > blocks.length) {
+            newLength = blocks.length * 2;
+        }
+        Object[][] a = new Object[newLength][];
+        int newFirst = (newLength - used) / 2;
+        System.arraycopy(blocks, first, a, newFirst, used);
+        head = (newFirst << BLOCK_SHIFT) + (head & BLOCK_MASK);
+        blocks = a;
+    }
+}
@@ -0,0 +1,124 @@
+package deque;
+
+import edu.princeton.cs.algs4.StdRandom;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ChunkedArrayDequeTest {
+    @Test
+    public void addRemoveTest() {
+        ChunkedArrayDeque<Integer> cd = new ChunkedArrayDeque<>();
+        assertTrue("A newly initialized ChunkedArrayDeque should be empty", cd.isEmpty());
+
+        cd.addFirst(10);
+        assertFalse("cd should contain 1 item", cd.isEmpty());
+
+        cd.removeFirst();
+        assertTrue("cd should be empty after removal", cd.isEmpty());
+        assertNull("Should return null when removeFirst is called on an empty Deque,", cd.removeFirst());
+        assertNull("Should return null when removeLast is called on an empty Deque,", cd.removeLast());
+    }
+
+    @Test
+    /* Add large number of elements to both ends; check if order is correct. */
+    public void bigChunkedDequeTest() {
+        ChunkedArrayDeque<Integer> cd = new ChunkedArrayDeque<>();
+        for (int i = 0; i < 500000; i++) {
+            cd.addLast(i);
+            cd.addFirst(-i - 1);
+        }
+        assertEquals(1000000, cd.size());
+        for (int i = 0; i < 1000000; i++) {
+            assertEquals(Integer.valueOf(i - 500000), cd.get(i));
+        }
+        for (int i = 499999; i >= 0; i--) {
+            assertEquals(Integer.valueOf(i), cd.removeLast());
+            assertEquals(Integer.valueOf(-i - 1), cd.removeFirst());
+        }
+        assertTrue(cd.isEmpty());
+    }
+
+    @Test
+    /* Use the deque as a FIFO queue so the items drift across the block map. */
+    public void queueTest() {
+        ChunkedArrayDeque<Integer> cd = new ChunkedArrayDeque<>();
+        int next = 0;
+        for (int i = 0; i < 100; i++) {
+            cd.addLast(i);
+        }
+        for (int i = 100; i < 1000000; i++) {
+            assertEquals(Integer.valueOf(next), cd.removeFirst());
+            next += 1;
+            cd.addLast(i);
+        }
+        assertEquals(100, cd.size());
+    }
+
+    @Test
+    public void randomizedCompareTest() {
+        ChunkedArrayDeque<Integer> cd = new ChunkedArrayDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        for (int i = 0; i < 200000; i++) {
+            int operation = StdRandom.uniform(4);
+            switch (operation) {
+                case 0:
+                    cd.addFirst(i);
+                    expected.addFirst(i);
+                    break;
+                case 1:
+                    cd.addLast(i);
+                    expected.addLast(i);
+                    break;
+                case 2:
+                    assertEquals(expected.pollFirst(), cd.removeFirst());
+                    break;
+                default:
+                    assertEquals(expected.pollLast(), cd.removeLast());
+                    break;
+            }
+            assertEquals(expected.size(), cd.size());
+        }
+        int index = 0;
+        for (int x : cd) {
+            assertEquals(expected.removeFirst(), cd.get(index));
+            assertEquals(Integer.valueOf(x), cd.get(index));
+            index += 1;
+        }
+    }
+
+    @Test
+    public void equalsTest() {
+        ChunkedArrayDeque<Integer> cd = new ChunkedArrayDeque<>();
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        LinkedListDeque<Integer> lld = new LinkedListDeque<>();
+        for (int i = 0; i < 10; i++) {
+            cd.addLast(i);
+            ad.addFirst(i);
+            lld.addLast(i);
+        }
+        assertTrue(cd.equals(lld));
+        assertFalse(cd.equals(ad));
+    }
+
+    @Test
+    /* Equal deques must have equal hash codes, however their blocks are laid out. */
+    public void hashCodeTest() {
+        ChunkedArrayDeque<Integer> a = new ChunkedArrayDeque<>();
+        ChunkedArrayDeque<Integer> b = new ChunkedArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            a.addLast(i);
+            b.addFirst(999 - i);
+            b.addLast(-1);
+            b.removeLast();
+        }
+        assertTrue(a.equals(b));
+        assertEquals(a.hashCode(), b.hashCode());
+        java.util.List<Integer> list = new java.util.ArrayList<>();
+        for (int x : a) {
+            list.add(x);
+        }
+        assertEquals(list.hashCode(), a.hashCode());
+        b.addLast(null);
+        assertNotEquals(a.hashCode(), b.hashCode());
+    }
+}
@@ -0,0 +1,184 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A doubly linked deque laid out as parallel arrays instead of node objects.
+ * Slot i holds items[i], and prev[i] and next[i] are the slots of its
+ * neighbours. Slot 0 is the sentinel, so next[0] is the first item and
+ * prev[0] is the last. Unused slots are chained through next from freeSlot.
+ *
+ * A node costs three array entries (about 12 bytes) instead of a DLNode
+ * object with a header and three references, and adds and removes never
+ * allocate except when the arrays double.
+ */
+public class CompactLinkedListDeque<T> implements Deque<T>, Iterable<T> {
+    private T[] items;
+    private int[] prev;
+    private int[] next;
+    private int freeSlot; // Invariant: head of the free slot chain, 0 when every slot is in use.
+    private int size;
+
+    /** Creates an empty compact linked list deque. */
+    public CompactLinkedListDeque() {
+        allocate(8);
+        size = 0;
+    }
+
+    @Override
+    public void addFirst(T item) {
+        link(item, 0, next[0]);
+    }
+
+    @Override
+    public void addLast(T item) {
+        link(item, prev[0], 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void printDeque() {
+        for (int cur = next[0]; cur != 0; cur = next[cur]) {
+            System.out.print(items[cur] + " ");
+        }
+        System.out.println();
+    }
+
+    @Override
+    public T removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return unlink(next[0]);
+    }
+
+    @Override
+    public T removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        return unlink(prev[0]);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int cur;
+        if (index < size - 1 - index) {
+            cur = next[0];
+            for (int i = 0; i < index; i++) {
+                cur = next[cur];
+            }
+        } else {
+            cur = prev[0];
+            for (int i = size - 1; i > index; i--) {
+                cur = prev[cur];
+            }
+        }
+        return items[cur];
+    }
+
+    private class CompactLinkedListDequeIterator implements Iterator<T> {
+        private int current;
+
+        public CompactLinkedListDequeIterator() {
+            current = next[0];
+        }
+
+        public boolean hasNext() {
+            return current != 0;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = items[current];
+            current = next[current];
+            return item;
+        }
+    }
+
+    public Iterator<T> iterator() {
+        return new CompactLinkedListDequeIterator();
+    }
+
+    /** Puts item in a free slot between slots p and n. */
+    private void link(T item, int p, int n) {
+        if (freeSlot == 0) {
+            resize(items.length * 2);
+            // Slots are renumbered by resize, so find the neighbours again.
+            if (p == 0) {
+                n = next[0];
+            } else {
+                p = prev[0];
+            }
+        }
+        int slot = freeSlot;
+        freeSlot = next[slot];
+        items[slot] = item;
+        prev[slot] = p;
+        next[slot] = n;
+        next[p] = slot;
+        prev[n] = slot;
+        size += 1;
+    }
+
+    /** Removes the item in slot and returns the slot to the free chain. */
+    private T unlink(int slot) {
+        T item = items[slot];
+        next[prev[slot]] = next[slot];
+        prev[next[slot]] = prev[slot];
+        items[slot] = null;
+        next[slot] = freeSlot;
+        freeSlot = slot;
+        size -= 1;
+        if (size > 16 && size < items.length / 4) {
+            resize(items.length / 2);
+        }
+        return item;
+    }
+
+    /** Creates empty arrays of the given length, with every slot but the sentinel free. */
+    private void allocate(int length) {
+        items = (T[]) new Object[length];
+        prev = new int[length];
+        next = new int[length];
+        freeSlot = length > 1 ? 1 : 0;
+        for (int i = 1; i < length; i++) {
+            next[i] = i + 1 < length ? i + 1 : 0;
+        }
+    }
+
+    /**
+     * Moves the items into arrays of the given length, placing them in order
+     * in slots 1..size so that a walk through the list is a walk through memory.
+     */
+    private void resize(int length) {
+        T[] oldItems = items;
+        int[] oldNext = next;
+        allocate(length);
+        int slot = 0;
+        for (int cur = oldNext[0]; cur != 0; cur = oldNext[cur]) {
+            slot += 1;
+            items[slot] = oldItems[cur];
+            prev[slot] = slot - 1;
+            next[slot - 1] = slot;
+        }
+        next[slot] = 0;
+        prev[0] = slot;
+        freeSlot = slot + 1 < length ? slot + 1 : 0;
+    }
+}
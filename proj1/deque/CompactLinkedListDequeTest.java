@@ -0,0 +1,52 @@
+package deque;
+
+import edu.princeton.cs.algs4.StdRandom;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompactLinkedListDequeTest {
+    @Test
+    public void addRemoveTest() {
+        CompactLinkedListDeque<String> cd = new CompactLinkedListDeque<>();
+        assertTrue("A newly initialized CompactLinkedListDeque should be empty", cd.isEmpty());
+        cd.addFirst("middle");
+        cd.addFirst("front");
+        cd.addLast("back");
+        assertEquals(3, cd.size());
+        assertEquals("front", cd.get(0));
+        assertEquals("back", cd.get(2));
+        assertNull(cd.get(3));
+        assertEquals("back", cd.removeLast());
+        assertEquals("front", cd.removeFirst());
+        assertEquals("middle", cd.removeFirst());
+        assertNull("Should return null when removeFirst is called on an empty Deque,", cd.removeFirst());
+        assertNull("Should return null when removeLast is called on an empty Deque,", cd.removeLast());
+    }
+
+    @Test
+    /* Grow and shrink through several resizes, comparing against java.util.ArrayDeque. */
+    public void randomizedCompareTest() {
+        CompactLinkedListDeque<Integer> cd = new CompactLinkedListDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        for (int i = 0; i < 300000; i++) {
+            // Bias towards adds for the first half and towards removes for the second.
+            int operation = StdRandom.uniform(6);
+            boolean add = i < 150000 ? operation < 4 : operation < 2;
+            if (add && operation % 2 == 0) {
+                cd.addFirst(i);
+                expected.addFirst(i);
+            } else if (add) {
+                cd.addLast(i);
+                expected.addLast(i);
+            } else if (operation % 2 == 0) {
+                assertEquals(expected.pollFirst(), cd.removeFirst());
+            } else {
+                assertEquals(expected.pollLast(), cd.removeLast());
+            }
+            assertEquals(expected.size(), cd.size());
+        }
+        for (int x : cd) {
+            assertEquals(expected.removeFirst(), Integer.valueOf(x));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package deque;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe circular array deque with two modes.
+ *
+ * By default any thread may add and remove at either end. Each operation
+ * holds a lock for the few steps it takes on the array, so callers need no
+ * synchronized block of their own.
+ *
+ * In work-stealing mode (new ConcurrentArrayDeque&lt;&gt;(true)) the deque is
+ * a lock-free Chase-Lev deque (Chase and Lev, "Dynamic Circular
+ * Work-Stealing Deque", SPAA 2005). The thread that created it owns it and
+ * is the only one allowed to call addLast and removeLast, which work on
+ * the back like a stack and never contend unless the deque is down to its
+ * last item; any other thread calling them gets an IllegalStateException.
+ * Any number of other threads may call removeFirst to steal the oldest
+ * item from the front; thieves race each other with a single CAS on the
+ * front index. addFirst is not supported in this mode, since only the owner
+ * adds and it adds at the back.
+ *
+ * size(), get() and printDeque() only give a snapshot while other threads
+ * are changing the deque.
+ */
+public class ConcurrentArrayDeque<T> implements Deque<T> {
+    private volatile AtomicReferenceArray<T> items;
+    private final AtomicLong front; // Invariant: front is the pos of the oldest item.
+    private volatile long back; // Invariant: back is the pos just past the newest item.
+    /** The thread allowed to push and pop at the back, or null if any thread may. */
+    private final Thread owner;
+    private final Object lock = new Object();
+
+    /** Create an empty ConcurrentArrayDeque that any thread may use at either end. */
+    public ConcurrentArrayDeque() {
+        this(false);
+    }
+
+    /** Create an empty ConcurrentArrayDeque, in work-stealing mode if workStealing is true,
+     *  in which case the calling thread becomes its owner. */
+    public ConcurrentArrayDeque(boolean workStealing) {
+        items = new AtomicReferenceArray<>(16);
+        front = new AtomicLong(0);
+        back = 0;
+        owner = workStealing ? Thread.currentThread() : null;
+    }
+
+    /** Adds item to the front. Not supported in work-stealing mode. */
+    @Override
+    public void addFirst(T item) {
+        if (owner != null) {
+            throw new UnsupportedOperationException("Work-stealing deques only add at the back.");
+        }
+        synchronized (lock) {
+            long f = front.get();
+            AtomicReferenceArray<T> a = items;
+            if (back - f >= a.length()) {
+                a = resize(a, f, back);
+            }
+            a.set((int) (f - 1) & (a.length() - 1), item);
+            front.set(f - 1);
+        }
+    }
+
+    /** Adds item to the back. In work-stealing mode, only the owner may call this. */
+    @Override
+    public void addLast(T item) {
+        if (owner == null) {
+            synchronized (lock) {
+                push(item);
+            }
+        } else {
+            checkOwner();
+            push(item);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        if (owner == null) {
+            synchronized (lock) {
+                return (int) (back - front.get());
+            }
+        }
+        long n = back - front.get();
+        return n < 0 ? 0 : (int) n;
+    }
+
+    @Override
+    public void printDeque() {
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            System.out.print(get(i) + " ");
+        }
+        System.out.println();
+    }
+
+    /** Removes the oldest item. Safe to call from any thread. Returns null if empty. */
+    @Override
+    public T removeFirst() {
+        if (owner == null) {
+            synchronized (lock) {
+                long f = front.get();
+                if (f == back) {
+                    return null;
+                }
+                AtomicReferenceArray<T> a = items;
+                int slot = (int) f & (a.length() - 1);
+                T item = a.get(slot);
+                a.set(slot, null);
+                front.set(f + 1);
+                return item;
+            }
+        }
+        return steal();
+    }
+
+    /** Removes the newest item. Returns null if empty.
+     *  In work-stealing mode, only the owner may call this. */
+    @Override
+    public T removeLast() {
+        if (owner == null) {
+            synchronized (lock) {
+                long b = back - 1;
+                if (front.get() > b) {
+                    return null;
+                }
+                AtomicReferenceArray<T> a = items;
+                int slot = (int) b & (a.length() - 1);
+                T item = a.get(slot);
+                a.set(slot, null);
+                back = b;
+                return item;
+            }
+        }
+        checkOwner();
+        return pop();
+    }
+
+    @Override
+    public T get(int index) {
+        if (owner == null) {
+            synchronized (lock) {
+                return getSnapshot(index);
+            }
+        }
+        return getSnapshot(index);
+    }
+
+    private T getSnapshot(int index) {
+        long f = front.get();
+        if (index < 0 || f + index >= back) {
+            return null;
+        }
+        AtomicReferenceArray<T> a = items;
+        return a.get((int) (f + index) & (a.length() - 1));
+    }
+
+    /** Fails fast if a thread other than the owner works on the back. */
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Only the owner thread of a work-stealing deque "
+                                            + "may add or remove at the back.");
+        }
+    }
+
+    /** Pushes item onto the back. Owner only, or under the lock. */
+    private void push(T item) {
+        long b = back;
+        long f = front.get();
+        AtomicReferenceArray<T> a = items;
+        if (b - f >= a.length()) {
+            a = resize(a, f, b);
+        }
+        a.set((int) b & (a.length() - 1), item);
+        back = b + 1;
+    }
+
+    /** Takes the oldest item with one CAS on front, racing other thieves and
+     *  the owner. Returns null if empty. */
+    private T steal() {
+        while (true) {
+            long f = front.get();
+            long b = back;
+            if (f >= b) {
+                return null;
+            }
+            AtomicReferenceArray<T> a = items;
+            T item = a.get((int) f & (a.length() - 1));
+            if (front.compareAndSet(f, f + 1)) {
+                return item;
+            }
+        }
+    }
+
+    /** Pops the newest item, racing the thieves only for the last one. Owner only. */
+    private T pop() {
+        long b = back - 1;
+        AtomicReferenceArray<T> a = items;
+        back = b;
+        long f = front.get();
+        if (f > b) {
+            back = b + 1;
+            return null;
+        }
+        int slot = (int) b & (a.length() - 1);
+        T item = a.get(slot);
+        if (f == b) {
+            // Last item: race the thieves for it.
+            if (!front.compareAndSet(f, f + 1)) {
+                item = null;
+            }
+            back = b + 1;
+        } else {
+            a.set(slot, null);
+        }
+        return item;
+    }
+
+    /** Copies items [f, b) into an array twice as large. Owner only, or under the lock. */
+    private AtomicReferenceArray<T> resize(AtomicReferenceArray<T> a, long f, long b) {
+        AtomicReferenceArray<T> bigger = new AtomicReferenceArray<>(a.length() * 2);
+        for (long i = f; i < b; i++) {
+            bigger.set((int) i & (bigger.length() - 1), a.get((int) i & (a.length() - 1)));
+        }
+        items = bigger;
+        return bigger;
+    }
+}
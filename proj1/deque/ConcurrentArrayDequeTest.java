@@ -0,0 +1,172 @@
+package deque;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentArrayDequeTest {
+    @Test
+    /* In the default mode both ends work like any other deque. */
+    public void bothEndsTest() {
+        ConcurrentArrayDeque<Integer> cd = new ConcurrentArrayDeque<>();
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        assertTrue("A newly initialized ConcurrentArrayDeque should be empty", cd.isEmpty());
+        assertNull(cd.removeFirst());
+        assertNull(cd.removeLast());
+        Random r = new Random(6);
+        for (int i = 0; i < 5000; i++) {
+            int op = r.nextInt(4);
+            if (op == 0) {
+                cd.addFirst(i);
+                ad.addFirst(i);
+            } else if (op == 1) {
+                cd.addLast(i);
+                ad.addLast(i);
+            } else if (op == 2) {
+                assertEquals(ad.removeFirst(), cd.removeFirst());
+            } else {
+                assertEquals(ad.removeLast(), cd.removeLast());
+            }
+            assertEquals(ad.size(), cd.size());
+        }
+        for (int i = 0; i < ad.size(); i++) {
+            assertEquals(ad.get(i), cd.get(i));
+        }
+    }
+
+    @Test
+    /* Threads add and remove at both ends at once; every item must be taken exactly once. */
+    public void sharedTest() throws InterruptedException {
+        int perThread = 200000;
+        int workers = 4;
+        ConcurrentArrayDeque<Integer> cd = new ConcurrentArrayDeque<>();
+        AtomicIntegerArray taken = new AtomicIntegerArray(perThread * workers);
+        Thread[] threads = new Thread[workers];
+        for (int t = 0; t < workers; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                Random r = new Random(id);
+                for (int i = id * perThread; i < (id + 1) * perThread; i++) {
+                    if (r.nextBoolean()) {
+                        cd.addFirst(i);
+                    } else {
+                        cd.addLast(i);
+                    }
+                    if (r.nextInt(3) == 0) {
+                        Integer x = r.nextBoolean() ? cd.removeFirst() : cd.removeLast();
+                        if (x != null) {
+                            taken.incrementAndGet(x);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        Integer x;
+        while ((x = cd.removeFirst()) != null) {
+            taken.incrementAndGet(x);
+        }
+        for (int i = 0; i < perThread * workers; i++) {
+            assertEquals("Item " + i + " should be taken exactly once", 1, taken.get(i));
+        }
+    }
+
+    @Test
+    public void ownerOnlyTest() {
+        ConcurrentArrayDeque<Integer> cd = new ConcurrentArrayDeque<>(true);
+        assertTrue("A newly initialized ConcurrentArrayDeque should be empty", cd.isEmpty());
+        assertNull(cd.removeLast());
+        assertNull(cd.removeFirst());
+        for (int i = 0; i < 1000; i++) {
+            cd.addLast(i);
+        }
+        assertEquals(1000, cd.size());
+        assertEquals(Integer.valueOf(0), cd.get(0));
+        assertEquals(Integer.valueOf(999), cd.get(999));
+        assertEquals(Integer.valueOf(999), cd.removeLast());
+        assertEquals(Integer.valueOf(0), cd.removeFirst());
+        assertEquals(998, cd.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void workStealingAddFirstTest() {
+        new ConcurrentArrayDeque<Integer>(true).addFirst(1);
+    }
+
+    @Test
+    /* Only the owner may work on the back of a work-stealing deque; others may only steal. */
+    public void nonOwnerTest() throws InterruptedException {
+        ConcurrentArrayDeque<Integer> cd = new ConcurrentArrayDeque<>(true);
+        cd.addLast(1);
+        cd.addLast(2);
+        AtomicInteger failures = new AtomicInteger();
+        Thread thief = new Thread(() -> {
+            try {
+                cd.addLast(3);
+            } catch (IllegalStateException e) {
+                failures.incrementAndGet();
+            }
+            try {
+                cd.removeLast();
+            } catch (IllegalStateException e) {
+                failures.incrementAndGet();
+            }
+            cd.removeFirst();
+        });
+        thief.start();
+        thief.join();
+        assertEquals(2, failures.get());
+        assertEquals(1, cd.size());
+        assertEquals(Integer.valueOf(2), cd.removeLast());
+    }
+
+    @Test
+    /* The owner pushes and pops while thieves steal; every item must be taken exactly once. */
+    public void workStealingTest() throws InterruptedException {
+        int n = 1000000;
+        int thieves = 3;
+        ConcurrentArrayDeque<Integer> cd = new ConcurrentArrayDeque<>(true);
+        AtomicIntegerArray taken = new AtomicIntegerArray(n);
+        Thread[] threads = new Thread[thieves];
+        AtomicBoolean done = new AtomicBoolean(false);
+        for (int t = 0; t < thieves; t++) {
+            threads[t] = new Thread(() -> {
+                while (true) {
+                    Integer x = cd.removeFirst();
+                    if (x != null) {
+                        taken.incrementAndGet(x);
+                    } else if (done.get() && cd.isEmpty()) {
+                        return;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (int i = 0; i < n; i++) {
+            cd.addLast(i);
+            if (i % 3 == 0) {
+                Integer x = cd.removeLast();
+                if (x != null) {
+                    taken.incrementAndGet(x);
+                }
+            }
+        }
+        done.set(true);
+        Integer x;
+        while ((x = cd.removeLast()) != null) {
+            taken.incrementAndGet(x);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals("Item " + i + " should be taken exactly once", 1, taken.get(i));
+        }
+    }
+}
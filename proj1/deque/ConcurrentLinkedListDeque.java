@@ -0,0 +1,81 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * A thread-safe, lock-free linked deque. Both ends are updated with CAS, so
+ * any number of producers and consumers can use either end at the same time
+ * without a surrounding synchronized block.
+ *
+ * The linking is done by java.util.concurrent.ConcurrentLinkedDeque; this
+ * class adapts it to deque.Deque. As there, null items are not allowed, and
+ * size(), get() and iteration only give a snapshot while other threads are
+ * changing the deque.
+ */
+public class ConcurrentLinkedListDeque<T> implements Deque<T>, Iterable<T> {
+    private final ConcurrentLinkedDeque<T> items;
+
+    /** Creates an empty concurrent linked list deque. */
+    public ConcurrentLinkedListDeque() {
+        items = new ConcurrentLinkedDeque<>();
+    }
+
+    @Override
+    public void addFirst(T item) {
+        items.addFirst(item);
+    }
+
+    @Override
+    public void addLast(T item) {
+        items.addLast(item);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /** Returns the number of items. This walks the whole list, so it is O(n). */
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public void printDeque() {
+        for (T item : items) {
+            System.out.print(item + " ");
+        }
+        System.out.println();
+    }
+
+    @Override
+    public T removeFirst() {
+        return items.pollFirst();
+    }
+
+    @Override
+    public T removeLast() {
+        return items.pollLast();
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            return null;
+        }
+        int i = 0;
+        for (T item : items) {
+            if (i == index) {
+                return item;
+            }
+            i += 1;
+        }
+        return null;
+    }
+
+    public Iterator<T> iterator() {
+        return items.iterator();
+    }
+}
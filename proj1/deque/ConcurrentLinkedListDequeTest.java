@@ -0,0 +1,68 @@
+package deque;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentLinkedListDequeTest {
+    @Test
+    public void addRemoveTest() {
+        ConcurrentLinkedListDeque<Integer> cd = new ConcurrentLinkedListDeque<>();
+        assertTrue("A newly initialized ConcurrentLinkedListDeque should be empty", cd.isEmpty());
+        cd.addFirst(2);
+        cd.addFirst(1);
+        cd.addLast(3);
+        assertEquals(3, cd.size());
+        assertEquals(Integer.valueOf(2), cd.get(1));
+        assertNull(cd.get(3));
+        assertEquals(Integer.valueOf(1), cd.removeFirst());
+        assertEquals(Integer.valueOf(3), cd.removeLast());
+        assertEquals(Integer.valueOf(2), cd.removeLast());
+        assertNull("Should return null when removeFirst is called on an empty Deque,", cd.removeFirst());
+    }
+
+    @Test
+    /* Producers add at both ends while consumers remove from both ends. */
+    public void producerConsumerTest() throws InterruptedException {
+        int perProducer = 200000;
+        int producers = 2;
+        int total = perProducer * producers;
+        ConcurrentLinkedListDeque<Integer> cd = new ConcurrentLinkedListDeque<>();
+        AtomicIntegerArray taken = new AtomicIntegerArray(total);
+        AtomicInteger remaining = new AtomicInteger(total);
+        Thread[] threads = new Thread[producers * 2];
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (i % 2 == 0) {
+                        cd.addFirst(base + i);
+                    } else {
+                        cd.addLast(base + i);
+                    }
+                }
+            });
+            boolean fromFront = p % 2 == 0;
+            threads[producers + p] = new Thread(() -> {
+                while (remaining.get() > 0) {
+                    Integer x = fromFront ? cd.removeFirst() : cd.removeLast();
+                    if (x != null) {
+                        taken.incrementAndGet(x);
+                        remaining.decrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertTrue(cd.isEmpty());
+        for (int i = 0; i < total; i++) {
+            assertEquals("Item " + i + " should be taken exactly once", 1, taken.get(i));
+        }
+    }
+}
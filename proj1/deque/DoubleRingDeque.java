@@ -0,0 +1,114 @@
+package deque;
+
+/**
+ * A deque of primitive doubles backed by a circular double[] buffer.
+ * Unlike Deque<Double>, adding and removing never boxes a Double or
+ * allocates a node, so it is safe to use on a per-sample audio path.
+ * The backing array always has a power-of-two length, so wrapping an
+ * index is a single bitmask instead of a modulo.
+ */
+public class DoubleRingDeque {
+    private double[] items;
+    private int size;
+    private int head; // Invariant: head always points to the pos of the first item.
+    private int mask;
+
+    /** Create an empty DoubleRingDeque. */
+    public DoubleRingDeque() {
+        this(8);
+    }
+
+    /** Create an empty DoubleRingDeque that can hold capacity items before growing. */
+    public DoubleRingDeque(int capacity) {
+        int length = 8;
+        while (length < capacity) {
+            length *= 2;
+        }
+        items = new double[length];
+        mask = length - 1;
+        size = 0;
+        head = 0;
+    }
+
+    public void addFirst(double item) {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        head = (head - 1) & mask;
+        items[head] = item;
+        size += 1;
+    }
+
+    public void addLast(double item) {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        items[(head + size) & mask] = item;
+        size += 1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Prints the items in the deque from first to last, separated by a space.
+     * Once all the items have been printed, print out a new line.
+     */
+    public void printDeque() {
+        for (int i = 0; i < size; i++) {
+            System.out.print(items[(head + i) & mask] + " ");
+        }
+        System.out.println();
+    }
+
+    /** Removes and returns the first item. Returns 0.0 if the deque is empty. */
+    public double removeFirst() {
+        if (isEmpty()) {
+            return 0.0;
+        }
+        double retItem = items[head];
+        head = (head + 1) & mask;
+        size -= 1;
+        return retItem;
+    }
+
+    /** Removes and returns the last item. Returns 0.0 if the deque is empty. */
+    public double removeLast() {
+        if (isEmpty()) {
+            return 0.0;
+        }
+        size -= 1;
+        return items[(head + size) & mask];
+    }
+
+    /** Returns the item at the given index. Returns 0.0 if the index is out of bounds. */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            return 0.0;
+        }
+        return items[(head + index) & mask];
+    }
+
+    /** Replaces the item at the given index. Does nothing if the index is out of bounds. */
+    public void set(int index, double item) {
+        if (index < 0 || index >= size) {
+            return;
+        }
+        items[(head + index) & mask] = item;
+    }
+
+    private void resize(int newCapacity) {
+        double[] a = new double[newCapacity];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, a, 0, firstPart);
+        System.arraycopy(items, 0, a, firstPart, size - firstPart);
+        items = a;
+        mask = newCapacity - 1;
+        head = 0;
+    }
+}
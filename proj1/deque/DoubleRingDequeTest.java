@@ -0,0 +1,62 @@
+package deque;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DoubleRingDequeTest {
+    @Test
+    public void addRemoveTest() {
+        DoubleRingDeque d = new DoubleRingDeque();
+        assertTrue("A newly initialized DoubleRingDeque should be empty", d.isEmpty());
+
+        d.addLast(2.0);
+        d.addFirst(1.0);
+        d.addLast(3.0);
+        assertEquals(3, d.size());
+        assertEquals(1.0, d.get(0), 0.0);
+        assertEquals(3.0, d.get(2), 0.0);
+
+        assertEquals(1.0, d.removeFirst(), 0.0);
+        assertEquals(3.0, d.removeLast(), 0.0);
+        assertEquals(2.0, d.removeFirst(), 0.0);
+        assertTrue(d.isEmpty());
+        assertEquals("Should return 0.0 when removing from an empty deque", 0.0, d.removeFirst(), 0.0);
+    }
+
+    @Test
+    /* Grow past the initial capacity from both ends; check if order is correct. */
+    public void resizeTest() {
+        DoubleRingDeque d = new DoubleRingDeque();
+        java.util.ArrayDeque<Double> expected = new java.util.ArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                d.addFirst(i);
+                expected.addFirst((double) i);
+            } else {
+                d.addLast(i);
+                expected.addLast((double) i);
+            }
+        }
+        assertEquals(expected.size(), d.size());
+        int index = 0;
+        for (double x : expected) {
+            assertEquals(x, d.get(index), 0.0);
+            index += 1;
+        }
+    }
+
+    @Test
+    public void ringTest() {
+        DoubleRingDeque d = new DoubleRingDeque(5);
+        for (int i = 0; i < 5; i++) {
+            d.addLast(i);
+        }
+        for (int i = 5; i < 100; i++) {
+            assertEquals(i - 5, d.removeFirst(), 0.0);
+            d.addLast(i);
+            assertEquals(5, d.size());
+        }
+        d.set(0, -1.0);
+        assertEquals(-1.0, d.get(0), 0.0);
+    }
+}
@@ -1,6 +1,6 @@
 package deque;
 
-import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -17,10 +17,29 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         }
     }
 
+    /* Distance in items between neighbouring entries of the skip index. */
+    private static final int SKIP_STRIDE = 64;
+
     private int size;
     private DLNode sentF;
     private DLNode sentL;
 
+    /* The node most recently returned by get, so that get(i + 1) is one step away. */
+    private DLNode cursor;
+    private int cursorIndex;
+
+    /* Optional sparse index: skipIndex.get(k) is the node at index k * SKIP_STRIDE + skipBase,
+     * or null if that node has been removed. Rebuilt lazily by get. */
+    private boolean skipIndexEnabled;
+    private ArrayList<DLNode> skipIndex;
+    private int skipBase;
+    private long skipDebt;
+
+    /* Optional pool of removed nodes, chained through next, reused by later adds. */
+    private DLNode freeNodes;
+    private int freeCount;
+    private int maxFreeNodes;
+
 
     /** Creates an empty linked list deque. */
     public LinkedListDeque() {
@@ -33,7 +52,7 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
 
     @Override
     public void addFirst(T item){
-        DLNode newFirstNode = new DLNode(item, sentF, null);
+        DLNode newFirstNode = newNode(item, sentF, null);
         if (size == 0)  {
             newFirstNode.next = sentL;
             sentL.prev = newFirstNode;
@@ -44,11 +63,13 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         }
         sentF.next = newFirstNode;
         size += 1;
+        cursorIndex += 1;
+        skipBase += 1;
     }
 
     @Override
     public void addLast(T item) {
-        DLNode newLastNode = new DLNode(item,null,sentL);
+        DLNode newLastNode = newNode(item, null, sentL);
         if (size == 0) {
             newLastNode.prev = sentF;
             sentF.next = newLastNode;
@@ -88,10 +109,15 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         if (size() == 0) {
             return null;
         }
+        DLNode removed = sentF.next;
+        forget(removed, 0);
         size -= 1;
-        T ret = sentF.next.item;
-        sentF.next = sentF.next.next;
+        T ret = removed.item;
+        sentF.next = removed.next;
         sentF.next.prev = sentF;
+        cursorIndex -= 1;
+        skipBase -= 1;
+        recycle(removed);
         return ret;
     }
 
@@ -100,27 +126,167 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         if (size() == 0) {
             return null;
         }
+        DLNode removed = sentL.prev;
+        forget(removed, size - 1);
         size -= 1;
-        T ret = sentL.prev.item;
-        sentL.prev = sentL.prev.prev;
+        T ret = removed.item;
+        sentL.prev = removed.prev;
         sentL.prev.next = sentL;
+        recycle(removed);
         return ret;
     }
 
+    /**
+     * Returns the item at the given index. The walk starts from whichever is
+     * closest of the two sentinels, the node of the previous get, and, if the
+     * skip index is enabled, the nearest skip index entry.
+     */
     @Override
     public T get(int index) {
         if ((index >= size()) || index < 0) {
             return null;
         }
-        DLNode cur = sentF;
-        for (int i = 0; i <= index; i++) {
+        DLNode start = sentF.next;
+        int startIndex = 0;
+        if (size - 1 - index < index) {
+            start = sentL.prev;
+            startIndex = size - 1;
+        }
+        if (cursor != null && Math.abs(index - cursorIndex) < Math.abs(index - startIndex)) {
+            start = cursor;
+            startIndex = cursorIndex;
+        }
+        if (skipIndexEnabled && Math.abs(index - startIndex) > SKIP_STRIDE) {
+            int k = nearestSkip(index);
+            if (k < 0) {
+                // Only rebuild once the long walks since the last rebuild add up to
+                // a full pass, so rebuilding never more than doubles the work.
+                skipDebt += Math.abs(index - startIndex);
+                if (skipDebt >= size) {
+                    rebuildSkipIndex();
+                    k = nearestSkip(index);
+                }
+            }
+            if (k >= 0) {
+                start = skipIndex.get(k);
+                startIndex = k * SKIP_STRIDE + skipBase;
+            }
+        }
+
+        DLNode cur = start;
+        for (int i = startIndex; i < index; i++) {
             cur = cur.next;
         }
+        for (int i = startIndex; i > index; i--) {
+            cur = cur.prev;
+        }
+        cursor = cur;
+        cursorIndex = index;
         return cur.item;
     }
 
+    /**
+     * Turns the skip index on or off. While it is on, get walks at most about
+     * SKIP_STRIDE nodes, at the cost of one extra pointer per SKIP_STRIDE items.
+     */
+    public void setSkipIndex(boolean enabled) {
+        skipIndexEnabled = enabled;
+        if (!enabled) {
+            skipIndex = null;
+        }
+    }
+
+    /**
+     * Keeps up to maxPooled removed nodes on a free list and reuses them for
+     * later adds, so a deque that churns through items stops allocating once
+     * it reaches a steady size. 0, the default, turns pooling off.
+     * Throws IllegalArgumentException if maxPooled is negative.
+     */
+    public void setNodePool(int maxPooled) {
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("maxPooled must not be negative: " + maxPooled);
+        }
+        maxFreeNodes = maxPooled;
+        while (freeCount > maxFreeNodes) {
+            freeNodes = freeNodes.next;
+            freeCount -= 1;
+        }
+    }
+
+    /** Returns a node holding item, taken from the free list if there is one. */
+    private DLNode newNode(T item, DLNode p, DLNode n) {
+        if (freeNodes == null) {
+            return new DLNode(item, p, n);
+        }
+        DLNode node = freeNodes;
+        freeNodes = node.next;
+        freeCount -= 1;
+        node.item = item;
+        node.prev = p;
+        node.next = n;
+        return node;
+    }
+
+    /** Puts a removed node on the free list if there is room, dropping its item. */
+    private void recycle(DLNode node) {
+        if (freeCount >= maxFreeNodes) {
+            return;
+        }
+        node.item = null;
+        node.prev = null;
+        node.next = freeNodes;
+        freeNodes = node;
+        freeCount += 1;
+    }
+
+    /** Returns the skip index slot closest to index that is within SKIP_STRIDE of it, or -1. */
+    private int nearestSkip(int index) {
+        if (skipIndex == null) {
+            return -1;
+        }
+        int k = Math.floorDiv(index - skipBase, SKIP_STRIDE);
+        int best = -1;
+        for (int c = k; c <= k + 1; c++) {
+            if (c >= 0 && c < skipIndex.size() && skipIndex.get(c) != null) {
+                if (best < 0 || Math.abs(index - (c * SKIP_STRIDE + skipBase))
+                        < Math.abs(index - (best * SKIP_STRIDE + skipBase))) {
+                    best = c;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void rebuildSkipIndex() {
+        skipIndex = new ArrayList<>((size + SKIP_STRIDE - 1) / SKIP_STRIDE);
+        skipBase = 0;
+        skipDebt = 0;
+        DLNode cur = sentF.next;
+        for (int i = 0; i < size; i++) {
+            if (i % SKIP_STRIDE == 0) {
+                skipIndex.add(cur);
+            }
+            cur = cur.next;
+        }
+    }
+
+    /** Drops any cached reference to node, which is at index and about to be removed. */
+    private void forget(DLNode node, int index) {
+        if (cursor == node) {
+            cursor = null;
+        }
+        if (skipIndex != null && Math.floorMod(index - skipBase, SKIP_STRIDE) == 0) {
+            int k = Math.floorDiv(index - skipBase, SKIP_STRIDE);
+            if (k >= 0 && k < skipIndex.size()) {
+                skipIndex.set(k, null);
+            }
+        }
+    }
+
     /**
      * Returns the item at the given index using a recursive approach.
+     * The walk is split in half at each level, so the recursion is only
+     * about log2(size) calls deep even though it still visits O(size) nodes.
      * @param index the index of the item to be retrieved
      * @return the item at the specified index if it exists, null otherwise
      */
@@ -129,20 +295,28 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         if (index < 0 || index >= size()) {
             return null;
         }
-        return getRecursiveHelper(sentF.next, index); // Start recursion from the first element
+        if (size() - 1 - index < index) {
+            return getRecursiveHelper(sentL.prev, size() - 1 - index, false).item; // Closer to the back
+        }
+        return getRecursiveHelper(sentF.next, index, true).item; // Start recursion from the first element
     }
+
     /**
      * Private helper method to facilitate the recursion for getRecursive method.
      * @param node the starting node for the recursion
-     * @param index the index to be decremented until it reaches 0
-     * @return the item of the node at the current recursion depth
+     * @param steps the number of nodes to move past node
+     * @param forward whether to move towards the back (true) or the front (false)
+     * @return the node steps away from node
      */
-    private T getRecursiveHelper(DLNode node, int index) {
-        if (index == 0) {
-            return node.item; // Base case: if index is 0, return the item of the current node
-        } else {
-            return getRecursiveHelper(node.next, index - 1); // Recursive call with the next node and index decremented by 1
+    private DLNode getRecursiveHelper(DLNode node, int steps, boolean forward) {
+        if (steps == 0) {
+            return node; // Base case: no steps left, so node is the one we want
+        } else if (steps == 1) {
+            return forward ? node.next : node.prev;
         }
+        // Walk the first half, then the second half from where that stopped.
+        DLNode middle = getRecursiveHelper(node, steps / 2, forward);
+        return getRecursiveHelper(middle, steps - steps / 2, forward);
     }
 
 
@@ -134,4 +134,91 @@ public class LinkedListDequeTest {
             assertEquals("Should have the same value", i, (double) lld1.removeLast(), 0.0);
         }
     }
+
+    @Test
+    /* Random and sequential gets, with and without the skip index, while both ends change. */
+    public void getFromAnywhereTest() {
+        for (boolean indexed : new boolean[] {false, true}) {
+            LinkedListDeque<Integer> lld = new LinkedListDeque<>();
+            lld.setSkipIndex(indexed);
+            java.util.ArrayList<Integer> expected = new java.util.ArrayList<>();
+            java.util.Random r = new java.util.Random(61);
+            for (int i = 0; i < 5000; i++) {
+                lld.addLast(i);
+                expected.add(i);
+            }
+            for (int round = 0; round < 2000; round++) {
+                switch (r.nextInt(4)) {
+                    case 0:
+                        lld.addFirst(-round);
+                        expected.add(0, -round);
+                        break;
+                    case 1:
+                        assertEquals(expected.remove(0), lld.removeFirst());
+                        break;
+                    case 2:
+                        assertEquals(expected.remove(expected.size() - 1), lld.removeLast());
+                        break;
+                    default:
+                        lld.addLast(round);
+                        expected.add(round);
+                        break;
+                }
+                int i = r.nextInt(expected.size());
+                assertEquals(expected.get(i), lld.get(i));
+                if (i + 1 < expected.size()) {
+                    assertEquals(expected.get(i + 1), lld.get(i + 1));
+                }
+                assertEquals(expected.get(i), lld.getRecursive(i));
+            }
+        }
+    }
+
+    @Test
+    /* getRecursive recurses only about log2(size) deep, so it works far past
+     * the size at which a one-call-per-node recursion overflows the stack. */
+    public void deepGetRecursiveTest() {
+        LinkedListDeque<Integer> lld = new LinkedListDeque<>();
+        int n = 1000000;
+        for (int i = 0; i < n; i++) {
+            lld.addLast(i);
+        }
+        for (int i : new int[] {0, 1, n / 2 - 1, n / 2, n / 2 + 1, n - 2, n - 1}) {
+            assertEquals(Integer.valueOf(i), lld.getRecursive(i));
+        }
+        assertNull(lld.getRecursive(n));
+    }
+
+    @Test
+    /* With the node pool on, churning through items should behave exactly like before. */
+    public void nodePoolTest() {
+        LinkedListDeque<Integer> lld = new LinkedListDeque<>();
+        lld.setNodePool(16);
+        for (int i = 0; i < 100; i++) {
+            lld.addLast(i);
+        }
+        for (int i = 100; i < 100000; i++) {
+            if (i % 2 == 0) {
+                assertEquals(Integer.valueOf(i - 100), lld.removeFirst());
+                lld.addLast(i);
+            } else {
+                lld.addFirst(lld.removeLast());
+                lld.addLast(lld.removeFirst());
+                assertEquals(Integer.valueOf(i - 100), lld.removeFirst());
+                lld.addLast(i);
+            }
+        }
+        assertEquals(100, lld.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(99900 + i), lld.get(i));
+        }
+        lld.setNodePool(0);
+        assertEquals(Integer.valueOf(99999), lld.removeLast());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeNodePoolTest() {
+        LinkedListDeque<Integer> lld = new LinkedListDeque<>();
+        lld.setNodePool(-1);
+    }
 }
@@ -3,9 +3,18 @@ package gh2;
 import edu.princeton.cs.algs4.StdAudio;
 
 import javax.sound.midi.*;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Plays guitar from MIDI files.
@@ -13,9 +22,21 @@ import java.io.InputStream;
  * @author Eli Lipsitz
  */
 public class GuitarPlayer {
+    /* Number of samples synthesized per call to renderBlock() during play(). */
+    private static final int BLOCK_SIZE = 1024;
+    /* Strings whose mean power falls below this are skipped as silent (about -100 dB). */
+    private static final double SILENCE_THRESHOLD = 1e-10;
+    /* Number of samples each worker synthesizes per fork/join round in render(). */
+    private static final int WINDOW_SIZE = 44100;
+    /* Number of voice groups the 128 strings are split into by render(). This is
+     * fixed rather than tied to the core count so the mix order, and hence the
+     * output, does not depend on the machine. */
+    private static final int VOICE_GROUPS = 16;
+
     private Sequence sequence = null;
     private GuitarString[] strings;
     private double[] vol;
+    private double[] scratch;
 
     public GuitarPlayer(InputStream source) {
         try {
@@ -42,20 +63,31 @@ public class GuitarPlayer {
         }
     }
 
-    private void tic() {
-        for (int i = 0; i < strings.length; i++) {
-            if (vol[i] > 0.0) {
-                strings[i].tic();
-            }
+    /**
+     * Synthesizes the next frames samples of all sounding strings into
+     * out[0..frames), overwriting what was there. Strings that are not held
+     * down or whose energy has decayed below SILENCE_THRESHOLD are skipped.
+     */
+    public void renderBlock(double[] out, int frames) {
+        if (strings == null) {
+            initialize();
+        }
+        if (scratch == null || scratch.length < frames) {
+            scratch = new double[frames];
+        }
+        for (int j = 0; j < frames; j++) {
+            out[j] = 0.0;
         }
-    }
-
-    private double sample() {
-        double sum = 0.0f;
         for (int i = 0; i < strings.length; i++) {
-            sum += vol[i] * strings[i].sample();
+            double v = vol[i];
+            if (v <= 0.0 || strings[i].energy() < SILENCE_THRESHOLD) {
+                continue;
+            }
+            strings[i].renderBlock(scratch, frames);
+            for (int j = 0; j < frames; j++) {
+                out[j] += v * scratch[j];
+            }
         }
-        return sum;
     }
 
     public void play() {
@@ -65,6 +97,7 @@ public class GuitarPlayer {
 
         System.out.println("starting performance...");
         initialize();
+        double[] block = new double[BLOCK_SIZE];
         double bpm = 120;
         double samplesPerTick = StdAudio.SAMPLE_RATE * (60.0 / (sequence.getResolution() * bpm));
 
@@ -105,9 +138,13 @@ public class GuitarPlayer {
 
             if (event.getTick() > tick) {
                 int samplesToSkip = (int) ((event.getTick() - tick) * samplesPerTick);
-                for (int j = 0; j < samplesToSkip; j++) {
-                    tic();
-                    StdAudio.play(sample());
+                while (samplesToSkip > 0) {
+                    int frames = Math.min(samplesToSkip, BLOCK_SIZE);
+                    renderBlock(block, frames);
+                    for (int j = 0; j < frames; j++) {
+                        StdAudio.play(block[j]);
+                    }
+                    samplesToSkip -= frames;
                 }
                 tick = event.getTick();
             }
@@ -137,4 +174,267 @@ public class GuitarPlayer {
 
         System.out.println("please clap");
     }
+
+    /**
+     * Renders the whole sequence offline into a 16-bit mono WAV file instead of
+     * playing it. The 128 strings are split into voice groups that are
+     * synthesized in parallel on a ForkJoinPool and then mixed in a fixed order,
+     * so a given seed always produces a bit-identical file.
+     */
+    public void render(File target, long seed) throws IOException {
+        render(target, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Like render(target, seed), but synthesizes on a pool of the given
+     * parallelism. The file does not depend on the parallelism.
+     */
+    public void render(File target, long seed, int parallelism) throws IOException {
+        if (sequence == null) {
+            return;
+        }
+
+        List<NoteEvent> events = noteEvents();
+        long totalFrames = events.isEmpty() ? 0 : events.get(events.size() - 1).frame;
+
+        VoiceGroup[] groups = new VoiceGroup[VOICE_GROUPS];
+        int perGroup = 128 / VOICE_GROUPS;
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = new VoiceGroup(g * perGroup, (g + 1) * perGroup, events, seed);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        double[] mix = new double[WINDOW_SIZE];
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(target)))) {
+            writeWavHeader(out, totalFrames);
+            for (long start = 0; start < totalFrames; start += WINDOW_SIZE) {
+                int frames = (int) Math.min(WINDOW_SIZE, totalFrames - start);
+                for (VoiceGroup group : groups) {
+                    group.reinitialize();
+                    group.window(start, frames);
+                }
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(groups);
+                    }
+                });
+
+                for (int j = 0; j < frames; j++) {
+                    mix[j] = 0.0;
+                }
+                for (VoiceGroup group : groups) {
+                    for (int j = 0; j < frames; j++) {
+                        mix[j] += group.buffer[j];
+                    }
+                }
+                for (int j = 0; j < frames; j++) {
+                    double clipped = Math.max(-1.0, Math.min(1.0, mix[j]));
+                    short pcm = (short) (clipped * Short.MAX_VALUE);
+                    out.writeByte(pcm & 0xFF);
+                    out.writeByte((pcm >> 8) & 0xFF);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /* A note on or note off, timestamped in samples from the start of the sequence. */
+    private static class NoteEvent {
+        private final long frame;
+        private final int note;
+        private final double vol;
+        private final boolean pluck;
+
+        NoteEvent(long frame, int note, double vol, boolean pluck) {
+            this.frame = frame;
+            this.note = note;
+            this.vol = vol;
+            this.pluck = pluck;
+        }
+    }
+
+    /**
+     * Walks the sequence the same way play() does, but records every note on
+     * and note off at the sample it would have been played at instead of
+     * synthesizing. The last event marks the end of the performance.
+     */
+    private List<NoteEvent> noteEvents() {
+        double bpm = 120;
+        double samplesPerTick = StdAudio.SAMPLE_RATE * (60.0 / (sequence.getResolution() * bpm));
+
+        Track[] tracks = sequence.getTracks();
+        Track track = sequence.createTrack();
+        for (int i = 0; i < tracks.length; i++) {
+            for (int j = 0; j < tracks[i].size(); j++) {
+                track.add(tracks[i].get(j));
+            }
+        }
+
+        List<NoteEvent> events = new ArrayList<>();
+        long tick = 0;
+        long frame = 0;
+        for (int i = 0; i < track.size(); i++) {
+            MidiEvent event = track.get(i);
+            MidiMessage msg = event.getMessage();
+            byte[] data = msg.getMessage();
+
+            if (msg instanceof MetaMessage) {
+                MetaMessage mm = (MetaMessage) msg;
+                if (mm.getType() == 0x51) {
+                    // set tempo
+                    data = mm.getData();
+                    int tempo = (data[0] & 0xff) << 16 | (data[1] & 0xff) << 8 | (data[2] & 0xff);
+                    bpm = 60000000.0 / tempo;
+                    samplesPerTick = StdAudio.SAMPLE_RATE
+                        * (60.0 / (sequence.getResolution() * bpm));
+                }
+                continue;
+            }
+
+            if (event.getTick() > tick) {
+                frame += (int) ((event.getTick() - tick) * samplesPerTick);
+                tick = event.getTick();
+            }
+
+            int j = 0;
+            while (j < data.length - 2) {
+                int s = data[j++] & 0xFF;
+                if (s >= 0x80 && s <= 0x8F) {
+                    // note off
+                    int note = data[j++] & 0xFF;
+                    j++;
+                    events.add(new NoteEvent(frame, note, 0.0, false));
+                } else if (s >= 0x90 && s <= 0x9F) {
+                    // note on?
+                    int note = data[j++] & 0xFF;
+                    int vel = data[j++] & 0xFF;
+                    events.add(new NoteEvent(frame, note, vel / 127.0, true));
+                } else {
+                    // status
+                    j += 2;
+                }
+            }
+        }
+        sequence.deleteTrack(track);
+        return events;
+    }
+
+    /**
+     * Synthesizes strings [lo, hi) one window at a time into its own buffer.
+     * Each string owns a Random seeded from the render seed and its note, so
+     * plucks do not depend on which thread runs the group.
+     */
+    private static class VoiceGroup extends RecursiveAction {
+        /* RecursiveAction is Serializable, but voice groups only live for one render. */
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final GuitarString[] strings;
+        private final double[] vol;
+        private final Random[] rngs;
+        private final NoteEvent[][] events;
+        private final int[] nextEvent;
+        private final double[] buffer = new double[WINDOW_SIZE];
+        private final double[] scratch = new double[WINDOW_SIZE];
+        private long start;
+        private int frames;
+
+        VoiceGroup(int lo, int hi, List<NoteEvent> allEvents, long seed) {
+            this.lo = lo;
+            int n = hi - lo;
+            strings = new GuitarString[n];
+            vol = new double[n];
+            rngs = new Random[n];
+            events = new NoteEvent[n][];
+            nextEvent = new int[n];
+            List<List<NoteEvent>> byNote = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                int note = lo + i;
+                strings[i] = new GuitarString(440.0 * Math.pow(2.0, (note - 69.0) / 12.0));
+                rngs[i] = new Random(seed * 1000003L + note);
+                byNote.add(new ArrayList<>());
+            }
+            for (NoteEvent e : allEvents) {
+                if (e.note >= lo && e.note < hi) {
+                    byNote.get(e.note - lo).add(e);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                events[i] = byNote.get(i).toArray(new NoteEvent[0]);
+            }
+        }
+
+        /* Sets the window [start, start + frames) the next compute() renders. */
+        void window(long windowStart, int windowFrames) {
+            start = windowStart;
+            frames = windowFrames;
+        }
+
+        @Override
+        protected void compute() {
+            for (int j = 0; j < frames; j++) {
+                buffer[j] = 0.0;
+            }
+            long end = start + frames;
+            for (int i = 0; i < strings.length; i++) {
+                long cursor = start;
+                NoteEvent[] es = events[i];
+                while (nextEvent[i] < es.length && es[nextEvent[i]].frame < end) {
+                    NoteEvent e = es[nextEvent[i]];
+                    mixString(i, (int) (cursor - start), (int) (e.frame - cursor));
+                    vol[i] = e.vol;
+                    if (e.pluck) {
+                        strings[i].pluck(rngs[i]);
+                    }
+                    cursor = e.frame;
+                    nextEvent[i] += 1;
+                }
+                mixString(i, (int) (cursor - start), (int) (end - cursor));
+            }
+        }
+
+        /* Adds string i's next n samples into buffer[offset..offset + n). */
+        private void mixString(int i, int offset, int n) {
+            double v = vol[i];
+            if (n <= 0 || v <= 0.0 || strings[i].energy() < SILENCE_THRESHOLD) {
+                return;
+            }
+            strings[i].renderBlock(scratch, offset, n);
+            for (int j = offset; j < offset + n; j++) {
+                buffer[j] += v * scratch[j];
+            }
+        }
+    }
+
+    /* Writes a canonical 44-byte header for 16-bit mono PCM at StdAudio.SAMPLE_RATE. */
+    private static void writeWavHeader(DataOutputStream out, long frames) throws IOException {
+        int dataBytes = (int) (frames * 2);
+        out.writeBytes("RIFF");
+        writeIntLE(out, 36 + dataBytes);
+        out.writeBytes("WAVE");
+        out.writeBytes("fmt ");
+        writeIntLE(out, 16);
+        out.writeByte(1); // PCM
+        out.writeByte(0);
+        out.writeByte(1); // mono
+        out.writeByte(0);
+        writeIntLE(out, StdAudio.SAMPLE_RATE);
+        writeIntLE(out, StdAudio.SAMPLE_RATE * 2);
+        out.writeByte(2); // block align
+        out.writeByte(0);
+        out.writeByte(16); // bits per sample
+        out.writeByte(0);
+        out.writeBytes("data");
+        writeIntLE(out, dataBytes);
+    }
+
+    private static void writeIntLE(DataOutputStream out, int v) throws IOException {
+        out.writeByte(v & 0xFF);
+        out.writeByte((v >> 8) & 0xFF);
+        out.writeByte((v >> 16) & 0xFF);
+        out.writeByte((v >> 24) & 0xFF);
+    }
 }
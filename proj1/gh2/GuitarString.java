@@ -1,8 +1,10 @@
 package gh2;
 
 // TODO: uncomment the following import once you're ready to start this portion
-import deque.Deque;
-import deque.LinkedListDeque;
+import deque.DoubleRingDeque;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 // TODO: maybe more imports
 
 //Note: This file will not compile until you complete the Deque implementations
@@ -15,14 +17,16 @@ public class GuitarString {
 
     /* Buffer for storing sound data. */
     // TODO: uncomment the following line once you're ready to start this portion
-    private Deque<Double> buffer;
+    private DoubleRingDeque buffer;
+    /* Running sum of the squares of every sample in the buffer. */
+    private double energy;
 
     /* Create a guitar string of the given frequency.  */
     public GuitarString(double frequency) {
         int capacity = (int) Math.round(SR / frequency);
-        buffer = new LinkedListDeque<>();
+        buffer = new DoubleRingDeque(capacity);
         for (int i = 0; i < capacity; i++) {
-            buffer.addLast((double) 0);
+            buffer.addLast(0.0);
         }
         // TODO: Create a buffer with capacity = SR / frequency. You'll need to
         //       cast the result of this division operation into an int. For
@@ -33,20 +37,17 @@ public class GuitarString {
 
     /* Pluck the guitar string by replacing the buffer with white noise. */
     public void pluck() {
-        // TODO: Dequeue everything in buffer, and replace with random numbers
-        //       between -0.5 and 0.5. You can get such a number by using:
-        //       double r = Math.random() - 0.5;
-        //       Make sure that your random numbers are different from each
-        //       other. This does not mean that you need to check that the numbers
-        //       are different from each other. It means you should repeatedly call
-        //       Math.random() - 0.5 to generate new random numbers for each array index.
-        int bufferCapacity = buffer.size();
-        while (!(buffer.isEmpty())) {
-            buffer.removeFirst();
-        }
-        for (int i = 0; i < bufferCapacity; i++) {
-            double r = Math.random() - 0.5;
-            buffer.addLast(r);
+        pluck(ThreadLocalRandom.current());
+    }
+
+    /* Pluck the guitar string using white noise drawn from rng, so that a
+     * seeded rng always produces the same sound. */
+    public void pluck(Random rng) {
+        energy = 0.0;
+        for (int i = 0; i < buffer.size(); i++) {
+            double r = rng.nextDouble() - 0.5;
+            buffer.set(i, r);
+            energy += r * r;
         }
     }
 
@@ -60,6 +61,7 @@ public class GuitarString {
         double firstItem = buffer.removeFirst();
         double avg = (buffer.get(0) + firstItem) * 0.5 * DECAY;
         buffer.addLast(avg);
+        energy += avg * avg - firstItem * firstItem;
     }
 
     /* Return the double at the front of the buffer. */
@@ -67,5 +69,26 @@ public class GuitarString {
         // TODO: Return the correct thing.
         return buffer.get(0);
     }
+
+    /* Return the mean power of the samples currently in the buffer. Once this
+     * drops below what is audible the string can be treated as silent. */
+    public double energy() {
+        return Math.max(energy, 0.0) / buffer.size();
+    }
+
+    /* Advance the simulation frames time steps, writing the sample after each
+     * tic() into out[0..frames). Equivalent to calling tic() then sample()
+     * frames times. */
+    public void renderBlock(double[] out, int frames) {
+        renderBlock(out, 0, frames);
+    }
+
+    /* Like renderBlock(out, frames), but writes into out[offset..offset + frames). */
+    public void renderBlock(double[] out, int offset, int frames) {
+        for (int i = offset; i < offset + frames; i++) {
+            tic();
+            out[i] = sample();
+        }
+    }
 }
     // TODO: Remove all comments that say TODO when you're done.
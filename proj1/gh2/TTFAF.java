@@ -26,6 +26,9 @@ public class TTFAF {
         // You can also do this:
         // GuitarPlayer player = new GuitarPlayer(new java.io.File("path/to/music.mid"));
         // player.play();
+        //
+        // Or render it to a WAV file as fast as your cores allow:
+        // player.render(new java.io.File("ttfaf.wav"), 61);
     }
 
     private static final String TTFAF =
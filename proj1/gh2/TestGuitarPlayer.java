@@ -0,0 +1,59 @@
+package gh2;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/** Tests that GuitarPlayer.render is deterministic. */
+public class TestGuitarPlayer {
+
+    /** Returns a player for a few seconds of overlapping notes across the
+     *  whole keyboard, so that every voice group and several render windows
+     *  have work to do. */
+    private static GuitarPlayer player() throws IOException, InvalidMidiDataException {
+        Sequence sequence = new Sequence(Sequence.PPQ, 24);
+        Track track = sequence.createTrack();
+        for (int i = 0; i < 64; i++) {
+            int note = (i * 37) % 128;
+            long on = i * 6;
+            track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, note, 100), on));
+            track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_OFF, 0, note, 0), on + 30));
+        }
+        ByteArrayOutputStream midi = new ByteArrayOutputStream();
+        MidiSystem.write(sequence, 0, midi);
+        return new GuitarPlayer(new ByteArrayInputStream(midi.toByteArray()));
+    }
+
+    /** Renders with seed on a pool of the given parallelism and returns the WAV bytes. */
+    private static byte[] render(long seed, int parallelism) throws Exception {
+        File wav = File.createTempFile("guitar", ".wav");
+        try {
+            player().render(wav, seed, parallelism);
+            return Files.readAllBytes(wav.toPath());
+        } finally {
+            wav.delete();
+        }
+    }
+
+    @Test
+    public void sameSeedSameFileTest() throws Exception {
+        byte[] first = render(61, 4);
+        assertTrue("the render should hold more than a header", first.length > 44 + 2 * 44100);
+        assertArrayEquals(first, render(61, 4));
+        assertArrayEquals(first, render(61, 1));
+        assertArrayEquals(first, render(61, 3));
+        assertFalse(Arrays.equals(first, render(62, 4)));
+    }
+}
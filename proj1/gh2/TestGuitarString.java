@@ -79,5 +79,33 @@ public class TestGuitarString  {
         // for assertEquals(double, double)
         assertEquals("Wrong tic value. Try running the testTic method.", expected, s5, 0.001);
     }
-}
 
+    @Test
+    public void testRenderBlock() {
+        // A string of frequency 11025 is a Deque of length 4, so every
+        // sample is 0.996 * 0.5 times the sum of the two samples 4 and 3
+        // steps before it.
+        GuitarString s = new GuitarString(11025);
+        s.pluck();
+        double[] x = new double[101];
+        x[0] = s.sample();
+        double[] out = new double[100];
+        s.renderBlock(out, 100);
+        System.arraycopy(out, 0, x, 1, 100);
+        for (int i = 4; i < x.length; i += 1) {
+            assertEquals("Wrong renderBlock value.", 0.996 * 0.5 * (x[i - 4] + x[i - 3]), x[i], 1e-12);
+        }
+        assertEquals("renderBlock should leave the string at its last sample.", x[100], s.sample(), 0.0);
+    }
+
+    @Test
+    public void testEnergyDecays() {
+        GuitarString s = new GuitarString(GuitarHeroLite.CONCERT_A);
+        assertEquals(0.0, s.energy(), 0.0);
+        s.pluck();
+        double before = s.energy();
+        assertTrue(before > 0.0);
+        s.renderBlock(new double[44100], 44100);
+        assertTrue("Energy should decay as the string rings.", s.energy() < before);
+    }
+}
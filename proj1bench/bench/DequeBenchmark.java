@@ -0,0 +1,219 @@
+package bench;
+
+import deque.ArrayDeque;
+import deque.ChunkedArrayDeque;
+import deque.CompactLinkedListDeque;
+import deque.Deque;
+import deque.LinkedListDeque;
+import student.StudentArrayDeque;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the proj1 deques against java.util.ArrayDeque and the proj1ec
+ * StudentArrayDeque. Each benchmark runs against a deque already holding
+ * size items. The add/remove pairs keep the size steady, so they measure
+ * one operation at that size rather than the cost of growing to it; fill
+ * measures growing from empty.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class DequeBenchmark {
+    @Param({"ArrayDeque", "LinkedListDeque", "CompactLinkedListDeque", "ChunkedArrayDeque", "java.util.ArrayDeque", "StudentArrayDeque"})
+    public String impl;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private Deque<Integer> deque;
+    private int[] indices;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deque = create(impl);
+        for (int i = 0; i < size; i++) {
+            deque.addLast(i);
+        }
+        Random r = new Random(42);
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = r.nextInt(size);
+        }
+    }
+
+    /** Push to the front and pop from the back: a queue running front to back. */
+    @Benchmark
+    public Integer addFirstRemoveLast() {
+        deque.addFirst(next++);
+        return deque.removeLast();
+    }
+
+    /** Push to the back and pop from the front: a queue running back to front. */
+    @Benchmark
+    public Integer addLastRemoveFirst() {
+        deque.addLast(next++);
+        return deque.removeFirst();
+    }
+
+    /** Push and pop at the front: a stack. */
+    @Benchmark
+    public Integer addFirstRemoveFirst() {
+        deque.addFirst(next++);
+        return deque.removeFirst();
+    }
+
+    /** Random indexed access. */
+    @Benchmark
+    public Integer get() {
+        next = (next + 1) & (indices.length - 1);
+        return deque.get(indices[next]);
+    }
+
+    /** Visit every item, front to back. Reported time is for the whole pass. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterate(Blackhole bh) {
+        if (deque instanceof Iterable) {
+            for (Object x : (Iterable<?>) deque) {
+                bh.consume(x);
+            }
+        } else {
+            for (int i = 0; i < deque.size(); i++) {
+                bh.consume(deque.get(i));
+            }
+        }
+    }
+
+    /** Build a deque of size items from empty with addLast. Reported time is for the whole fill. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Deque<Integer> fill() {
+        Deque<Integer> d = create(impl);
+        for (int i = 0; i < size; i++) {
+            d.addLast(i);
+        }
+        return d;
+    }
+
+    private static Deque<Integer> create(String impl) {
+        switch (impl) {
+            case "ArrayDeque":
+                return new ArrayDeque<>();
+            case "LinkedListDeque":
+                return new LinkedListDeque<>();
+            case "CompactLinkedListDeque":
+                return new CompactLinkedListDeque<>();
+            case "ChunkedArrayDeque":
+                return new ChunkedArrayDeque<>();
+            case "java.util.ArrayDeque":
+                return new JavaArrayDeque<>();
+            case "StudentArrayDeque":
+                return new Student<>();
+            default:
+                throw new IllegalArgumentException("Unknown deque: " + impl);
+        }
+    }
+
+    /** Adapts java.util.ArrayDeque to deque.Deque. get walks the iterator, as there is no indexed access. */
+    private static class JavaArrayDeque<T> implements Deque<T>, Iterable<T> {
+        private final java.util.ArrayDeque<T> d = new java.util.ArrayDeque<>();
+
+        public void addFirst(T item) {
+            d.addFirst(item);
+        }
+
+        public void addLast(T item) {
+            d.addLast(item);
+        }
+
+        public boolean isEmpty() {
+            return d.isEmpty();
+        }
+
+        public int size() {
+            return d.size();
+        }
+
+        public void printDeque() {
+            System.out.println(d);
+        }
+
+        public T removeFirst() {
+            return d.pollFirst();
+        }
+
+        public T removeLast() {
+            return d.pollLast();
+        }
+
+        public T get(int index) {
+            Iterator<T> it = d.iterator();
+            for (int i = 0; i < index; i++) {
+                it.next();
+            }
+            return it.next();
+        }
+
+        public Iterator<T> iterator() {
+            return d.iterator();
+        }
+    }
+
+    /** Adapts StudentArrayDeque to deque.Deque. */
+    private static class Student<T> implements Deque<T> {
+        private final StudentArrayDeque<T> d = new StudentArrayDeque<>();
+
+        public void addFirst(T item) {
+            d.addFirst(item);
+        }
+
+        public void addLast(T item) {
+            d.addLast(item);
+        }
+
+        public boolean isEmpty() {
+            return d.isEmpty();
+        }
+
+        public int size() {
+            return d.size();
+        }
+
+        public void printDeque() {
+            d.printDeque();
+        }
+
+        public T removeFirst() {
+            return d.removeFirst();
+        }
+
+        public T removeLast() {
+            return d.removeLast();
+        }
+
+        public T get(int index) {
+            return d.get(index);
+        }
+    }
+}
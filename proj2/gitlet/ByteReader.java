@@ -0,0 +1,84 @@
+package gitlet;
+
+import java.nio.charset.StandardCharsets;
+
+import static gitlet.Utils.*;
+
+/** Reads the primitives written by ByteWriter from a byte array, in order.
+ *  Running off the end of the array, or a varint too long for its type,
+ *  throws IllegalArgumentException. */
+class ByteReader {
+    /** The bytes being read. */
+    private final byte[] data;
+    /** Index of the next byte to read. */
+    private int pos;
+
+    /** A reader positioned at the start of DATA. */
+    ByteReader(byte[] data) {
+        this.data = data;
+    }
+
+    /** Returns true if every byte has been read. */
+    boolean atEnd() {
+        return pos == data.length;
+    }
+
+    /** Returns the index of the next byte to read. */
+    int position() {
+        return pos;
+    }
+
+    /** Returns the next byte, from 0 to 255. */
+    int readByte() {
+        need(1);
+        pos += 1;
+        return data[pos - 1] & 0xff;
+    }
+
+    /** Skips LENGTH bytes, returning the index of the first. */
+    int skip(int length) {
+        need(length);
+        pos += length;
+        return pos - length;
+    }
+
+    /** Reads a varint written by ByteWriter.writeVarint. */
+    int readVarint() {
+        long n = readVarlong();
+        if (n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("varint too large");
+        }
+        return (int) n;
+    }
+
+    /** Reads a varint written by ByteWriter.writeVarlong. */
+    long readVarlong() {
+        long n = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            n |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return n;
+            }
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+
+    /** Reads a UID written by ByteWriter.writeUid. */
+    String readUid() {
+        return uidFromBytes(data, skip(UID_BYTES));
+    }
+
+    /** Reads a string written by ByteWriter.writeString. */
+    String readString() {
+        int length = readVarint();
+        return new String(data, skip(length), length, StandardCharsets.UTF_8);
+    }
+
+    /** Throws IllegalArgumentException unless N more bytes are left. */
+    private void need(int n) {
+        if (n < 0 || n > data.length - pos) {
+            throw new IllegalArgumentException("truncated data");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package gitlet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static gitlet.Utils.*;
+
+/** Builds a byte array out of the primitives of gitlet's binary formats:
+ *  varints, which take one byte per 7 bits of a non-negative number, raw
+ *  20-byte UIDs, and length-prefixed UTF-8 strings. ByteReader reads them
+ *  back. */
+class ByteWriter {
+    /** The bytes written so far. */
+    private final ByteArrayOutputStream out;
+
+    /** A writer whose buffer starts with room for SIZE bytes. */
+    ByteWriter(int size) {
+        out = new ByteArrayOutputStream(size);
+    }
+
+    /** Writes the low 8 bits of B. */
+    void writeByte(int b) {
+        out.write(b);
+    }
+
+    /** Writes LENGTH bytes of DATA starting at OFFSET. */
+    void writeBytes(byte[] data, int offset, int length) {
+        out.write(data, offset, length);
+    }
+
+    /** Writes the non-negative N in 7-bit groups, low group first, with the
+     *  top bit of each byte set if another follows. */
+    void writeVarint(int n) {
+        writeVarlong(n);
+    }
+
+    /** Writes the non-negative N as writeVarint does. */
+    void writeVarlong(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative varint: " + n);
+        }
+        while ((n & ~0x7fL) != 0) {
+            out.write((int) (n & 0x7f) | 0x80);
+            n >>>= 7;
+        }
+        out.write((int) n);
+    }
+
+    /** Writes the hexadecimal UID ID as its UID_BYTES raw bytes. */
+    void writeUid(String id) {
+        out.write(uidToBytes(id), 0, UID_BYTES);
+    }
+
+    /** Writes S as the varint length of its UTF-8 encoding and then the
+     *  encoding. */
+    void writeString(String s) {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(utf8.length);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    /** Returns everything written. */
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
@@ -1,26 +1,134 @@
 package gitlet;
 
-// TODO: any imports you need here
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
-import java.util.Date; // TODO: You'll likely use this in this class
-
-/** Represents a gitlet commit object.
- *  TODO: It's a good idea to give a description here of what else this Class
- *  does at a high level.
+/** Represents a gitlet commit object: a message, a time, the commits it
+ *  follows and the blob of each file it tracks.
+ *
+ *  A Commit is stored in the ObjectStore in a versioned binary encoding
+ *  (see encode) rather than with Java serialization. UIDs are written as
+ *  20 raw bytes and numbers as varints, and decoding reads the fields back
+ *  in order without reflection.
  *
  *  @author TODO
  */
-public class Commit {
-    /**
-     * TODO: add instance variables here.
-     *
-     * List all instance variables of the Commit class here with a useful
-     * comment above them describing what that variable represents and how that
-     * variable is used. We've provided one example for `message`.
-     */
+public class Commit implements Dumpable {
+    /** Commits are only Java-serialized by the benchmark in proj2bench. */
+    private static final long serialVersionUID = 1L;
+
+    /** First byte of an encoded Commit. */
+    static final byte TAG = 'C';
+    /** Version of the encoding written by encode. */
+    static final int VERSION = 1;
 
     /** The message of this Commit. */
-    private String message;
+    private final String message;
+    /** When this Commit was made, in milliseconds since the epoch. */
+    private final long timestamp;
+    /** UIDs of the commits this one follows: none for the initial commit,
+     *  two for a merge. */
+    private final String[] parents;
+    /** Maps the name of each file tracked by this Commit to its blob's UID. */
+    private final TreeMap<String, String> blobs;
+
+    /** A Commit with MESSAGE made at TIMESTAMP, following PARENTS and
+     *  tracking BLOBS, which maps file names to blob UIDs. */
+    Commit(String message, long timestamp, List<String> parents, Map<String, String> blobs) {
+        this.message = message;
+        this.timestamp = timestamp;
+        this.parents = parents.toArray(new String[0]);
+        this.blobs = new TreeMap<>(blobs);
+    }
+
+    String getMessage() {
+        return message;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    List<String> getParents() {
+        return Collections.unmodifiableList(Arrays.asList(parents));
+    }
+
+    SortedMap<String, String> getBlobs() {
+        return Collections.unmodifiableSortedMap(blobs);
+    }
+
+    /** Stores this Commit, adds it to the CommitGraph and returns its UID.
+     *  Its parents must already have been written. */
+    String write() {
+        String id = ObjectStore.write(encode());
+        CommitGraph.add(id, this);
+        return id;
+    }
+
+    /** Returns the stored Commit whose UID is ID. */
+    static Commit read(String id) {
+        return decode(ObjectStore.read(id));
+    }
+
+    /** Returns this Commit encoded as TAG, the varint VERSION, the varint
+     *  timestamp, the varint number of parents and their UIDs, the varint
+     *  number of blobs and each file name and blob UID, and the message. */
+    byte[] encode() {
+        ByteWriter out = new ByteWriter(64 + blobs.size() * 48 + message.length());
+        out.writeByte(TAG);
+        out.writeVarint(VERSION);
+        out.writeVarlong(timestamp);
+        out.writeVarint(parents.length);
+        for (String parent : parents) {
+            out.writeUid(parent);
+        }
+        out.writeVarint(blobs.size());
+        for (Map.Entry<String, String> blob : blobs.entrySet()) {
+            out.writeString(blob.getKey());
+            out.writeUid(blob.getValue());
+        }
+        out.writeString(message);
+        return out.toByteArray();
+    }
+
+    /** Returns the Commit encoded in DATA by encode. */
+    static Commit decode(byte[] data) {
+        ByteReader in = new ByteReader(data);
+        if (in.readByte() != TAG) {
+            throw new IllegalArgumentException("not an encoded commit");
+        }
+        int version = in.readVarint();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported commit version " + version);
+        }
+        long timestamp = in.readVarlong();
+        int numParents = in.readVarint();
+        List<String> parents = new ArrayList<>(numParents);
+        for (int i = 0; i < numParents; i++) {
+            parents.add(in.readUid());
+        }
+        int numBlobs = in.readVarint();
+        TreeMap<String, String> blobs = new TreeMap<>();
+        for (int i = 0; i < numBlobs; i++) {
+            String name = in.readString();
+            blobs.put(name, in.readUid());
+        }
+        String message = in.readString();
+        if (!in.atEnd()) {
+            throw new IllegalArgumentException("trailing bytes after commit");
+        }
+        return new Commit(message, timestamp, parents, blobs);
+    }
 
-    /* TODO: fill in the rest of this class. */
+    @Override
+    public void dump() {
+        System.out.printf("message: %s%ndate: %s%nparents: %s%nblobs: %s%n",
+                          message, new Date(timestamp), Arrays.toString(parents), blobs);
+    }
 }
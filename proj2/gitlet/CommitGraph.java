@@ -0,0 +1,416 @@
+package gitlet;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static gitlet.Utils.*;
+
+/** An index of every commit's UID, parents, time, generation number and
+ *  message, so that log, global-log and finding split points can walk the
+ *  history without reading any commit objects.
+ *
+ *  Each commit has a position, from 0 to size() - 1, and refers to its
+ *  parents by position. Its generation number is one more than the largest
+ *  of its parents', or 1 if it has none, so a commit's ancestors all have
+ *  smaller generation numbers than it does.
+ *
+ *  The index is a stack of layer files in GRAPH_DIR, oldest first, named in
+ *  CHAIN. Each layer is immutable and memory-mapped. It holds a header
+ *  (magic, version, count, and the position of its first commit), a
+ *  fan-out table like PackFile's, its commits' raw UIDs in sorted order,
+ *  a fixed-size record of parents, generation and time for each, and their
+ *  messages. Parents always lie in the same layer or an older one.
+ *
+ *  add writes each new commit as a layer of its own, but first merges it
+ *  with the top layers for as long as it is at least half the size of the
+ *  layer beneath it, so layer sizes more than double going down. There are
+ *  never more than about log2(size()) layers, and each commit is rewritten
+ *  O(log size()) times over its life.
+ */
+class CommitGraph {
+    /** Where the layers live. */
+    static final File GRAPH_DIR = join(Repository.GITLET_DIR, "commit-graph");
+    /** Names of the layers in use, oldest first, one per line. */
+    static final File CHAIN = join(GRAPH_DIR, "chain");
+
+    /** Magic number at the start of a layer: "GCGR". */
+    private static final int MAGIC = 0x47434752;
+    private static final int VERSION = 1;
+    /** Bytes of magic, version, count and first position. */
+    private static final int HEADER = 16;
+    /** Offset of the sorted UIDs in a layer. */
+    private static final int UIDS = HEADER + 256 * 4;
+    /** Bytes in each record: two parent positions, generation and time. */
+    private static final int RECORD = 4 + 4 + 4 + 8;
+    /** Parent position meaning "no parent". */
+    static final int NONE = -1;
+
+    /** The layers named in CHAIN, oldest first, opened on first use. */
+    private static List<Layer> layers;
+
+    /** Returns the number of commits in the graph. */
+    static int size() {
+        List<Layer> all = layers();
+        return all.isEmpty() ? 0 : all.get(all.size() - 1).end();
+    }
+
+    /** Returns the position of the commit ID, or NONE if it is not in the
+     *  graph. */
+    static int find(String id) {
+        byte[] raw = uidToBytes(id);
+        for (Layer layer : layers()) {
+            int i = layer.indexOf(raw);
+            if (i >= 0) {
+                return layer.first + i;
+            }
+        }
+        return NONE;
+    }
+
+    /** Returns the UID of the commit at POS. */
+    static String id(int pos) {
+        Layer layer = layerOf(pos);
+        return layer.id(pos - layer.first);
+    }
+
+    /** Returns the position of parent K (0 or 1) of the commit at POS, or
+     *  NONE if it has no such parent. */
+    static int parent(int pos, int k) {
+        Layer layer = layerOf(pos);
+        return layer.buf.getInt(layer.record(pos - layer.first) + 4 * k);
+    }
+
+    /** Returns the generation number of the commit at POS. */
+    static int generation(int pos) {
+        Layer layer = layerOf(pos);
+        return layer.buf.getInt(layer.record(pos - layer.first) + 8);
+    }
+
+    /** Returns the time of the commit at POS, in milliseconds since the
+     *  epoch. */
+    static long timestamp(int pos) {
+        Layer layer = layerOf(pos);
+        return layer.buf.getLong(layer.record(pos - layer.first) + 12);
+    }
+
+    /** Returns the message of the commit at POS. */
+    static String message(int pos) {
+        Layer layer = layerOf(pos);
+        return layer.message(pos - layer.first);
+    }
+
+    /** Returns the position of a latest common ancestor of the commits at
+     *  A and B: one that is not an ancestor of any other common ancestor. */
+    static int mergeBase(int a, int b) {
+        final int fromA = 1;
+        final int fromB = 2;
+        // Commits are visited in decreasing generation order, so every
+        // child of a commit is visited, and has passed on its marks,
+        // before the commit itself is. The first commit marked as reached
+        // from both sides is therefore a latest common ancestor, and
+        // nothing older than it is ever visited.
+        HashMap<Integer, Integer> marks = new HashMap<>();
+        PriorityQueue<Integer> queue = new PriorityQueue<>(
+            (x, y) -> Integer.compare(generation(y), generation(x)));
+        marks.put(a, fromA);
+        marks.merge(b, fromB, (x, y) -> x | y);
+        queue.add(a);
+        if (b != a) {
+            queue.add(b);
+        }
+        while (!queue.isEmpty()) {
+            int pos = queue.poll();
+            int mark = marks.get(pos);
+            if (mark == (fromA | fromB)) {
+                return pos;
+            }
+            for (int k = 0; k < 2; k++) {
+                int p = parent(pos, k);
+                if (p != NONE) {
+                    Integer old = marks.get(p);
+                    if (old == null) {
+                        marks.put(p, mark);
+                        queue.add(p);
+                    } else {
+                        marks.put(p, old | mark);
+                    }
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /** Adds COMMIT, whose UID is ID, to the graph, unless it is already
+     *  there. Its parents must already be in the graph. */
+    static void add(String id, Commit commit) {
+        if (find(id) != NONE) {
+            return;
+        }
+        List<String> parents = commit.getParents();
+        if (parents.size() > 2) {
+            throw new IllegalArgumentException("commit has more than two parents: " + id);
+        }
+        int generation = 0;
+        for (String parent : parents) {
+            int pos = find(parent);
+            if (pos == NONE) {
+                throw new IllegalArgumentException("parent not in commit graph: " + parent);
+            }
+            generation = Math.max(generation, generation(pos));
+        }
+        List<Entry> entries = new ArrayList<>();
+        entries.add(new Entry(id, parents, generation + 1, commit.getTimestamp(),
+                              commit.getMessage()));
+
+        List<Layer> kept = new ArrayList<>(layers());
+        List<Layer> merged = new ArrayList<>();
+        while (!kept.isEmpty() && entries.size() * 2 >= kept.get(kept.size() - 1).count) {
+            Layer top = kept.remove(kept.size() - 1);
+            merged.add(top);
+            for (int i = 0; i < top.count; i++) {
+                entries.add(top.entry(i));
+            }
+        }
+        entries.sort(Comparator.comparing(e -> e.id));
+        int first = kept.isEmpty() ? 0 : kept.get(kept.size() - 1).end();
+        String name = writeLayer(entries, first);
+
+        List<String> names = new ArrayList<>();
+        for (Layer layer : kept) {
+            names.add(layer.name);
+        }
+        names.add(name);
+        File tmpChain = join(GRAPH_DIR, "chain.tmp");
+        writeContents(tmpChain, String.join("\n", names) + "\n");
+        ObjectStore.moveAtomically(tmpChain, CHAIN);
+        layers = null;
+        for (Layer layer : merged) {
+            join(GRAPH_DIR, layer.name).delete();
+        }
+    }
+
+    /** Writes ENTRIES, sorted by UID, as a new layer whose first commit is
+     *  at position FIRST, and returns the layer's file name. The parents of
+     *  ENTRIES must be in the layers below it or in ENTRIES. */
+    private static String writeLayer(List<Entry> entries, int first) {
+        HashMap<String, Integer> positions = new HashMap<>();
+        StringBuilder ids = new StringBuilder();
+        int[] fanout = new int[256];
+        for (int i = 0; i < entries.size(); i++) {
+            String id = entries.get(i).id;
+            positions.put(id, first + i);
+            ids.append(id);
+            fanout[uidToBytes(id)[0] & 0xff] += 1;
+        }
+        for (int b = 1; b < 256; b++) {
+            fanout[b] += fanout[b - 1];
+        }
+        GRAPH_DIR.mkdirs();
+        String name = "graph-" + sha1(ids.toString()) + ".layer";
+        File tmp = join(GRAPH_DIR, name + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(first);
+            for (int n : fanout) {
+                out.writeInt(n);
+            }
+            for (Entry e : entries) {
+                out.write(uidToBytes(e.id));
+            }
+            for (Entry e : entries) {
+                for (int k = 0; k < 2; k++) {
+                    if (k >= e.parents.size()) {
+                        out.writeInt(NONE);
+                    } else {
+                        Integer pos = positions.get(e.parents.get(k));
+                        out.writeInt(pos != null ? pos : find(e.parents.get(k)));
+                    }
+                }
+                out.writeInt(e.generation);
+                out.writeLong(e.timestamp);
+            }
+            List<byte[]> messages = new ArrayList<>();
+            int offset = 0;
+            for (Entry e : entries) {
+                byte[] utf8 = e.message.getBytes(StandardCharsets.UTF_8);
+                messages.add(utf8);
+                out.writeInt(offset);
+                offset += utf8.length;
+            }
+            out.writeInt(offset);
+            for (byte[] utf8 : messages) {
+                out.write(utf8);
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        ObjectStore.moveAtomically(tmp, join(GRAPH_DIR, name));
+        return name;
+    }
+
+    /** Returns the layer holding position POS. */
+    private static Layer layerOf(int pos) {
+        List<Layer> all = layers();
+        for (int i = all.size() - 1; i >= 0; i--) {
+            if (pos >= all.get(i).first) {
+                if (pos >= all.get(i).end()) {
+                    break;
+                }
+                return all.get(i);
+            }
+        }
+        throw new IllegalArgumentException("no commit at position " + pos);
+    }
+
+    /** Forgets the open layers, so that the next use reads CHAIN again. */
+    static void close() {
+        layers = null;
+    }
+
+    /** Returns the open layers, opening them if need be. */
+    private static List<Layer> layers() {
+        if (layers == null) {
+            layers = new ArrayList<>();
+            if (CHAIN.isFile()) {
+                for (String name : readContentsAsString(CHAIN).split("\n")) {
+                    if (!name.isEmpty()) {
+                        layers.add(new Layer(name));
+                    }
+                }
+            }
+        }
+        return layers;
+    }
+
+    /** A commit on its way into a layer. */
+    private static class Entry {
+        final String id;
+        /** UIDs of the parents, not positions, as merging layers moves
+         *  commits. */
+        final List<String> parents;
+        final int generation;
+        final long timestamp;
+        final String message;
+
+        Entry(String id, List<String> parents, int generation, long timestamp, String message) {
+            this.id = id;
+            this.parents = parents;
+            this.generation = generation;
+            this.timestamp = timestamp;
+            this.message = message;
+        }
+    }
+
+    /** One memory-mapped layer file. */
+    private static class Layer {
+        /** The layer's file name in GRAPH_DIR. */
+        final String name;
+        /** The whole file. */
+        final MappedByteBuffer buf;
+        /** Number of commits in the layer. */
+        final int count;
+        /** Position of the layer's first commit. */
+        final int first;
+        /** Offset of the message offsets, and of the messages themselves. */
+        private final int messageOffsets;
+        private final int messages;
+
+        Layer(String name) {
+            this.name = name;
+            File file = join(GRAPH_DIR, name);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException excp) {
+                throw new IllegalArgumentException(excp.getMessage());
+            }
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("not a version " + VERSION
+                                                   + " commit-graph layer: " + file);
+            }
+            count = buf.getInt(8);
+            first = buf.getInt(12);
+            messageOffsets = UIDS + count * (UID_BYTES + RECORD);
+            messages = messageOffsets + (count + 1) * 4;
+        }
+
+        /** Returns the position just past this layer's last commit. */
+        int end() {
+            return first + count;
+        }
+
+        /** Returns the offset of the record of the Ith commit. */
+        int record(int i) {
+            return UIDS + count * UID_BYTES + i * RECORD;
+        }
+
+        String id(int i) {
+            byte[] raw = new byte[UID_BYTES];
+            buf.get(UIDS + i * UID_BYTES, raw);
+            return uidFromBytes(raw, 0);
+        }
+
+        String message(int i) {
+            int start = buf.getInt(messageOffsets + i * 4);
+            byte[] utf8 = new byte[buf.getInt(messageOffsets + i * 4 + 4) - start];
+            buf.get(messages + start, utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        /** Returns the Ith commit as an Entry. */
+        Entry entry(int i) {
+            List<String> parents = new ArrayList<>(2);
+            for (int k = 0; k < 2; k++) {
+                int p = buf.getInt(record(i) + 4 * k);
+                if (p != NONE) {
+                    parents.add(CommitGraph.id(p));
+                }
+            }
+            return new Entry(id(i), parents, buf.getInt(record(i) + 8),
+                             buf.getLong(record(i) + 12), message(i));
+        }
+
+        /** Returns the index of the commit whose raw UID is RAW, or -1. */
+        int indexOf(byte[] raw) {
+            int b = raw[0] & 0xff;
+            int lo = b == 0 ? 0 : buf.getInt(HEADER + (b - 1) * 4);
+            int hi = buf.getInt(HEADER + b * 4) - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = compareUid(UIDS + mid * UID_BYTES, raw);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private int compareUid(int pos, byte[] raw) {
+            for (int i = 0; i < UID_BYTES; i++) {
+                int cmp = Integer.compare(buf.get(pos + i) & 0xff, raw[i] & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package gitlet;
+
+/** Binary deltas between two versions of a file, in the spirit of xdelta.
+ *
+ *  A delta is the lengths of the base and the target, as varints, followed
+ *  by a stream of instructions that rebuild the target from the base:
+ *  COPY OFFSET LENGTH copies LENGTH bytes of the base starting at OFFSET,
+ *  and INSERT LENGTH BYTES inserts LENGTH literal bytes.
+ *
+ *  create finds the copies by indexing every BLOCK-byte block of the base
+ *  by its hash and sliding a rolling hash of the same width over the
+ *  target. A hit whose bytes really match is extended as far as it goes in
+ *  both directions and becomes a COPY; the bytes between hits become
+ *  INSERTs.
+ */
+class Delta {
+    /** Instruction codes. */
+    private static final int COPY = 0;
+    private static final int INSERT = 1;
+    /** Width of the blocks matched between base and target. */
+    private static final int BLOCK = 16;
+    /** Multiplier of the rolling hash. */
+    private static final int PRIME = 0x01000193;
+    /** PRIME to the power BLOCK - 1, for removing the byte that leaves the window. */
+    private static final int PRIME_POW;
+
+    static {
+        int p = 1;
+        for (int i = 0; i < BLOCK - 1; i++) {
+            p *= PRIME;
+        }
+        PRIME_POW = p;
+    }
+
+    /** Returns a delta that turns BASE into TARGET. */
+    static byte[] create(byte[] base, byte[] target) {
+        ByteWriter out = new ByteWriter(target.length / 8 + 16);
+        out.writeVarint(base.length);
+        out.writeVarint(target.length);
+
+        // Open-addressed table from block hash to 1 + the block's offset in base.
+        int blocks = base.length / BLOCK;
+        int size = Integer.highestOneBit(Math.max(blocks, 1) * 2) * 2;
+        int mask = size - 1;
+        int[] hashes = new int[size];
+        int[] offsets = new int[size];
+        for (int b = 0; b < blocks; b++) {
+            int h = hash(base, b * BLOCK);
+            int slot = mix(h) & mask;
+            while (offsets[slot] != 0 && hashes[slot] != h) {
+                slot = (slot + 1) & mask;
+            }
+            if (offsets[slot] == 0) {
+                hashes[slot] = h;
+                offsets[slot] = b * BLOCK + 1;
+            }
+        }
+
+        int pending = 0; // start of target bytes not yet covered by an instruction
+        int i = 0;
+        int h = target.length >= BLOCK ? hash(target, 0) : 0;
+        while (i + BLOCK <= target.length) {
+            int match = -1;
+            if (blocks > 0) {
+                int slot = mix(h) & mask;
+                while (offsets[slot] != 0) {
+                    if (hashes[slot] == h) {
+                        match = offsets[slot] - 1;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            if (match >= 0 && regionsEqual(base, match, target, i, BLOCK)) {
+                int start = i;
+                int baseStart = match;
+                while (start > pending && baseStart > 0 && base[baseStart - 1] == target[start - 1]) {
+                    start -= 1;
+                    baseStart -= 1;
+                }
+                int end = i + BLOCK;
+                int baseEnd = match + BLOCK;
+                while (end < target.length && baseEnd < base.length && base[baseEnd] == target[end]) {
+                    end += 1;
+                    baseEnd += 1;
+                }
+                writeInsert(out, target, pending, start - pending);
+                out.writeByte(COPY);
+                out.writeVarint(baseStart);
+                out.writeVarint(end - start);
+                pending = end;
+                i = end;
+                if (i + BLOCK <= target.length) {
+                    h = hash(target, i);
+                }
+                continue;
+            }
+            if (i + BLOCK < target.length) {
+                h = (h - (target[i] & 0xff) * PRIME_POW) * PRIME + (target[i + BLOCK] & 0xff);
+            }
+            i += 1;
+        }
+        writeInsert(out, target, pending, target.length - pending);
+        return out.toByteArray();
+    }
+
+    /** Returns the result of applying DELTA to BASE. */
+    static byte[] apply(byte[] base, byte[] delta) {
+        ByteReader in = new ByteReader(delta);
+        if (in.readVarint() != base.length) {
+            throw new IllegalArgumentException("delta does not match its base");
+        }
+        byte[] target = new byte[in.readVarint()];
+        int t = 0;
+        while (!in.atEnd()) {
+            int op = in.readByte();
+            if (op == COPY) {
+                int offset = in.readVarint();
+                int length = in.readVarint();
+                System.arraycopy(base, offset, target, t, length);
+                t += length;
+            } else {
+                int length = in.readVarint();
+                System.arraycopy(delta, in.skip(length), target, t, length);
+                t += length;
+            }
+        }
+        if (t != target.length) {
+            throw new IllegalArgumentException("corrupt delta");
+        }
+        return target;
+    }
+
+    /** Returns the hash of DATA[OFFSET .. OFFSET + BLOCK). */
+    private static int hash(byte[] data, int offset) {
+        int h = 0;
+        for (int k = 0; k < BLOCK; k++) {
+            h = h * PRIME + (data[offset + k] & 0xff);
+        }
+        return h;
+    }
+
+    /** Spreads the bits of H so nearby hashes land in different slots. */
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean regionsEqual(byte[] a, int aOff, byte[] b, int bOff, int length) {
+        for (int k = 0; k < length; k++) {
+            if (a[aOff + k] != b[bOff + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeInsert(ByteWriter out, byte[] data, int offset, int length) {
+        if (length > 0) {
+            out.writeByte(INSERT);
+            out.writeVarint(length);
+            out.writeBytes(data, offset, length);
+        }
+    }
+}
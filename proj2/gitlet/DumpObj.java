@@ -1,12 +1,18 @@
 package gitlet;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
 
 /** A debugging class whose main program may be invoked as follows:
  *      java gitlet.DumpObj FILE...
  *  where each FILE is a file produced by Utils.writeObject (or any file
- *  containing a serialized object).  This will simply read FILE,
- *  deserialize it, and call the dump method on the resulting Object.
+ *  containing a serialized object), a file holding an encoded Commit or
+ *  StagingArea (such as .gitlet/index), or a loose object file from
+ *  .gitlet/objects holding either kind.  This will simply read FILE,
+ *  decode it, and call the dump method on the resulting Object.
  *  The object must implement the gitlet.Dumpable interface for this
  *  to work.  For example, you might define your class like this:
  *
@@ -29,15 +35,49 @@ import java.io.File;
  */
 public class DumpObj {
 
-    /** Deserialize and apply dump to the contents of each of the files
+    /** Decode and apply dump to the contents of each of the files
      *  in FILES. */
     public static void main(String... files) {
         for (String fileName : files) {
-            Dumpable obj = Utils.readObject(new File(fileName),
-                                            Dumpable.class);
+            Dumpable obj = read(new File(fileName));
             obj.dump();
             System.out.println("---");
         }
     }
-}
 
+    /** Returns the object held in FILE. */
+    static Dumpable read(File file) {
+        byte[] data = Utils.readContents(file);
+        if (isZlib(data)) {
+            byte[] record = ObjectStore.inflate(data);
+            if (record[0] != ObjectStore.FULL) {
+                throw new IllegalArgumentException("not a whole object: " + file);
+            }
+            data = Arrays.copyOfRange(record, 1, record.length);
+        }
+        if (data.length >= 2 && data[0] == (byte) 0xac && data[1] == (byte) 0xed) {
+            return deserialize(data);
+        } else if (data.length > 0 && data[0] == Commit.TAG) {
+            return Commit.decode(data);
+        } else if (data.length > 0 && data[0] == StagingArea.TAG) {
+            return StagingArea.decode(data);
+        }
+        throw new IllegalArgumentException("not a dumpable object: " + file);
+    }
+
+    /** Returns true if DATA starts with a zlib header, as the loose files
+     *  of the ObjectStore do. */
+    private static boolean isZlib(byte[] data) {
+        return data.length >= 2 && (data[0] & 0x0f) == 8
+            && ((data[0] & 0xff) << 8 | (data[1] & 0xff)) % 31 == 0;
+    }
+
+    /** Returns the object serialized in DATA. */
+    private static Dumpable deserialize(byte[] data) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return Dumpable.class.cast(in.readObject());
+        } catch (IOException | ClassCastException | ClassNotFoundException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package gitlet;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import static gitlet.Utils.*;
+
+/** The content-addressed store for gitlet's blobs and commits.
+ *
+ *  Each object is named by the SHA-1 UID of its contents. Its record (a
+ *  type byte followed by the contents) is kept compressed, either as a
+ *  loose file .gitlet/objects/XX/YYYY..., where XX is the first two
+ *  digits of the UID, or inside a pack under .gitlet/objects/pack (see
+ *  PackFile). New objects are always written loose; repack folds every
+ *  object into a single pack and deletes the loose files and old packs,
+ *  so a repository needs three files instead of one per object.
+ *
+ *  Blobs written with writeBlob may be stored as a DELTA record instead:
+ *  a Delta against the last blob written under the same file name, when
+ *  the two are of similar size and the delta is less than half the size of
+ *  the blob. A delta's base may itself be a delta, but never more than
+ *  MAX_DEPTH deep, so reading a blob applies at most MAX_DEPTH deltas.
+ *
+ *  Files larger than STREAM_THRESHOLD are never read into memory: writeBlob
+ *  hashes, compresses and writes them in one pass through a fixed buffer.
+ */
+class ObjectStore {
+    /** Where the objects live. */
+    static final File OBJECTS_DIR = join(Repository.GITLET_DIR, "objects");
+    /** Where the packs live. */
+    static final File PACK_DIR = join(OBJECTS_DIR, "pack");
+
+    /** Where the last blob id written under each file name is kept, in a
+     *  file named by the SHA-1 of the file name. */
+    static final File HINTS_DIR = join(OBJECTS_DIR, "hints");
+
+    /** Record type of an object stored whole: FULL, then the contents. */
+    static final byte FULL = 1;
+    /** Record type of a delta: DELTA, the chain depth, the raw UID of the
+     *  base, then a Delta from the base's contents to this object's. */
+    static final byte DELTA = 2;
+    /** Longest chain of deltas allowed. */
+    static final int MAX_DEPTH = 10;
+    /** Blobs smaller than this are never stored as deltas. */
+    private static final int MIN_DELTA_SIZE = 64;
+    /** Files larger than this are streamed into the store, and are never
+     *  stored as or used as the base of a delta. */
+    static final long STREAM_THRESHOLD = 8 << 20;
+
+    /** The packs in PACK_DIR, opened on first use. */
+    private static List<PackFile> packs;
+
+    /** Stores CONTENTS, unless an object with the same contents is already
+     *  stored, and returns its UID. */
+    static String write(byte[] contents) {
+        String id = sha1(contents);
+        if (!contains(id)) {
+            byte[] record = new byte[contents.length + 1];
+            record[0] = FULL;
+            System.arraycopy(contents, 0, record, 1, contents.length);
+            writeLoose(id, deflate(record));
+        }
+        return id;
+    }
+
+    /** Stores CONTENTS, the contents of the file NAME, as write does, but
+     *  as a delta against the last blob stored for NAME when that pays. */
+    static String writeBlob(String name, byte[] contents) {
+        String id = sha1(contents);
+        if (contains(id)) {
+            return id;
+        }
+        File hint = join(HINTS_DIR, sha1(name));
+        byte[] record = null;
+        if (contents.length >= MIN_DELTA_SIZE && hint.isFile()) {
+            record = deltaRecord(readContentsAsString(hint), contents);
+        }
+        if (record == null) {
+            write(contents);
+        } else {
+            writeLoose(id, deflate(record));
+        }
+        HINTS_DIR.mkdirs();
+        writeContents(hint, id);
+        return id;
+    }
+
+    /** Stores the contents of FILE, the file NAME, as writeBlob does, and
+     *  returns its UID. A FILE larger than STREAM_THRESHOLD is read once, in
+     *  constant memory, and stored whole. */
+    static String writeBlob(String name, File file) {
+        if (file.length() <= STREAM_THRESHOLD) {
+            return writeBlob(name, readContents(file));
+        }
+        // The next version of NAME would need this one in memory as its base.
+        join(HINTS_DIR, sha1(name)).delete();
+        return writeStreamed(file);
+    }
+
+    /** Stores the contents of FILE whole, computing its UID as it is
+     *  compressed into a temporary file that then becomes its loose file. */
+    private static String writeStreamed(File file) {
+        OBJECTS_DIR.mkdirs();
+        File tmp;
+        String id;
+        try {
+            tmp = Files.createTempFile(OBJECTS_DIR.toPath(), "incoming", ".tmp").toFile();
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        try {
+            try (OutputStream out = new DeflaterOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+                out.write(FULL);
+                id = sha1Copy(file, out);
+            } catch (IOException excp) {
+                throw new IllegalArgumentException(excp.getMessage());
+            }
+            if (!contains(id)) {
+                File loose = looseFile(id);
+                loose.getParentFile().mkdirs();
+                moveAtomically(tmp, loose);
+            }
+        } finally {
+            tmp.delete();
+        }
+        return id;
+    }
+
+    /** Returns a DELTA record for CONTENTS against the object BASEID, or
+     *  null if BASEID is missing, too different in size, too deep, or the
+     *  delta would not be less than half the size of CONTENTS. */
+    private static byte[] deltaRecord(String baseId, byte[] contents) {
+        if (!contains(baseId)) {
+            return null;
+        }
+        byte[] baseRecord = inflate(compressedRecord(baseId));
+        int depth = baseRecord[0] == DELTA ? baseRecord[1] + 1 : 1;
+        if (depth > MAX_DEPTH) {
+            return null;
+        }
+        byte[] base = contentsOf(baseId, baseRecord);
+        if (base.length < contents.length / 2 || base.length > contents.length * 2) {
+            return null;
+        }
+        byte[] delta = Delta.create(base, contents);
+        if (delta.length >= contents.length / 2) {
+            return null;
+        }
+        byte[] record = new byte[2 + UID_BYTES + delta.length];
+        record[0] = DELTA;
+        record[1] = (byte) depth;
+        System.arraycopy(uidToBytes(baseId), 0, record, 2, UID_BYTES);
+        System.arraycopy(delta, 0, record, 2 + UID_BYTES, delta.length);
+        return record;
+    }
+
+    /** Returns the contents of the object ID. */
+    static byte[] read(String id) {
+        return contentsOf(id, inflate(compressedRecord(id)));
+    }
+
+    /** Returns the contents of the object ID, whose uncompressed record is
+     *  RECORD, applying its chain of deltas if it has one. */
+    private static byte[] contentsOf(String id, byte[] record) {
+        if (record[0] == FULL) {
+            byte[] contents = new byte[record.length - 1];
+            System.arraycopy(record, 1, contents, 0, contents.length);
+            return contents;
+        }
+        if (record[0] != DELTA) {
+            throw new IllegalArgumentException("unknown record type " + record[0] + " in " + id);
+        }
+        String baseId = uidFromBytes(record, 2);
+        byte[] delta = new byte[record.length - 2 - UID_BYTES];
+        System.arraycopy(record, 2 + UID_BYTES, delta, 0, delta.length);
+        return Delta.apply(contentsOf(baseId, inflate(compressedRecord(baseId))), delta);
+    }
+
+    /** Returns true if the object ID is stored. */
+    static boolean contains(String id) {
+        if (looseFile(id).isFile()) {
+            return true;
+        }
+        byte[] raw = uidToBytes(id);
+        for (PackFile pack : packs()) {
+            if (pack.offsetOf(raw) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Moves every stored object into one new pack, deleting the loose
+     *  files and the old packs. Returns the number of objects packed. */
+    static int repack() {
+        TreeSet<String> ids = new TreeSet<>(looseIds());
+        for (PackFile pack : packs()) {
+            for (int i = 0; i < pack.count(); i++) {
+                ids.add(pack.id(i));
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        PACK_DIR.mkdirs();
+        String name = "pack-" + sha1(String.join("", ids));
+        File packFile = join(PACK_DIR, name + ".pack");
+        File idxFile = join(PACK_DIR, name + ".idx");
+        File tmpPack = join(PACK_DIR, name + ".pack.tmp");
+        File tmpIdx = join(PACK_DIR, name + ".idx.tmp");
+        // Records are copied compressed, as they are stored.
+        PackFile.write(tmpPack, tmpIdx, new ArrayList<>(ids), ObjectStore::compressedRecord);
+
+        List<File> oldPacks = packFiles();
+        closePacks();
+        moveAtomically(tmpPack, packFile);
+        moveAtomically(tmpIdx, idxFile);
+        for (File old : oldPacks) {
+            String base = old.getName().substring(0, old.getName().length() - ".pack".length());
+            if (!base.equals(name)) {
+                old.delete();
+                join(PACK_DIR, base + ".idx").delete();
+            }
+        }
+        for (String id : looseIds()) {
+            File loose = looseFile(id);
+            loose.delete();
+            loose.getParentFile().delete(); // only succeeds once the directory is empty
+        }
+        return ids.size();
+    }
+
+    /** Returns the compressed record of the object ID, from its loose file
+     *  or its pack. */
+    private static byte[] compressedRecord(String id) {
+        File loose = looseFile(id);
+        if (loose.isFile()) {
+            return readContents(loose);
+        }
+        byte[] raw = uidToBytes(id);
+        for (PackFile pack : packs()) {
+            long offset = pack.offsetOf(raw);
+            if (offset >= 0) {
+                return pack.readRecord(offset);
+            }
+        }
+        throw new IllegalArgumentException("no such object: " + id);
+    }
+
+    /** Returns the loose file for object ID. */
+    private static File looseFile(String id) {
+        return join(OBJECTS_DIR, id.substring(0, 2), id.substring(2));
+    }
+
+    /** Returns the UIDs of all loose objects. */
+    private static List<String> looseIds() {
+        List<String> ids = new ArrayList<>();
+        String[] dirs = OBJECTS_DIR.list();
+        if (dirs == null) {
+            return ids;
+        }
+        for (String dir : dirs) {
+            if (dir.length() != 2) {
+                continue;
+            }
+            List<String> names = plainFilenamesIn(join(OBJECTS_DIR, dir));
+            for (String name : names) {
+                if (name.length() == UID_LENGTH - 2) {
+                    ids.add(dir + name);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /** Writes the loose file for object ID, so that it either appears
+     *  complete or not at all. */
+    private static void writeLoose(String id, byte[] compressed) {
+        File loose = looseFile(id);
+        loose.getParentFile().mkdirs();
+        File tmp = new File(loose.getPath() + ".tmp");
+        writeContents(tmp, compressed);
+        moveAtomically(tmp, loose);
+    }
+
+    /** Renames FROM to TO, replacing TO, so that TO is seen either as it
+     *  was or as FROM, and never half written. */
+    static void moveAtomically(File from, File to) {
+        try {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Returns the .pack files in PACK_DIR. */
+    private static List<File> packFiles() {
+        List<File> files = new ArrayList<>();
+        List<String> names = plainFilenamesIn(PACK_DIR);
+        if (names != null) {
+            for (String name : names) {
+                if (name.endsWith(".pack")) {
+                    files.add(join(PACK_DIR, name));
+                }
+            }
+        }
+        return files;
+    }
+
+    /** Returns the open packs, opening them if need be. */
+    private static List<PackFile> packs() {
+        if (packs == null) {
+            packs = new ArrayList<>();
+            for (File packFile : packFiles()) {
+                String path = packFile.getPath();
+                File idxFile = new File(path.substring(0, path.length() - ".pack".length()) + ".idx");
+                if (idxFile.isFile()) {
+                    packs.add(new PackFile(packFile, idxFile));
+                }
+            }
+        }
+        return packs;
+    }
+
+    /** Closes the open packs, so that the next use opens PACK_DIR again. */
+    static void closePacks() {
+        if (packs != null) {
+            for (PackFile pack : packs) {
+                pack.close();
+            }
+            packs = null;
+        }
+    }
+
+    /* COMPRESSION */
+
+    /** Returns DATA compressed with zlib. */
+    static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+        byte[] buf = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /** Returns the zlib-compressed DATA uncompressed. */
+    static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2 + 16);
+        byte[] buf = new byte[8192];
+        try {
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new IllegalArgumentException("truncated object");
+                }
+                out.write(buf, 0, n);
+            }
+        } catch (DataFormatException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+}
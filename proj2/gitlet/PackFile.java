@@ -0,0 +1,179 @@
+package gitlet;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+
+import static gitlet.Utils.*;
+
+/** A pack of stored objects and the index used to find them.
+ *
+ *  The .pack file is a header (magic, version, object count) followed by
+ *  one entry per object: an int length and then the object's compressed
+ *  record exactly as ObjectStore would write it to a loose file.
+ *
+ *  The .idx file is a header (magic, version, object count), a fan-out table
+ *  of 256 ints whose entry B is the number of objects whose UID's first byte
+ *  is at most B, the raw UIDs in sorted order, and the pack offset of each
+ *  object. It is memory-mapped, so a lookup is a binary search over the
+ *  slice of UIDs the fan-out table picks out, with no parsing up front.
+ */
+class PackFile {
+    /** Magic numbers at the start of .pack and .idx files. */
+    private static final int PACK_MAGIC = 0x4750414b; // "GPAK"
+    private static final int IDX_MAGIC = 0x47494458;  // "GIDX"
+    private static final int VERSION = 1;
+    /** Bytes of magic, version and count at the start of both files. */
+    private static final int HEADER = 12;
+    /** Offset of the sorted UIDs in the .idx file. */
+    private static final int UIDS = HEADER + 256 * 4;
+
+    /** The pack's contents, read with positional reads. */
+    private final FileChannel pack;
+    /** The whole .idx file. */
+    private final MappedByteBuffer idx;
+    /** Number of objects in the pack. */
+    private final int count;
+
+    /** Opens the pack PACKFILE and its index IDXFILE. */
+    PackFile(File packFile, File idxFile) {
+        try {
+            pack = FileChannel.open(packFile.toPath(), StandardOpenOption.READ);
+            try (FileChannel idxChannel = FileChannel.open(idxFile.toPath(), StandardOpenOption.READ)) {
+                idx = idxChannel.map(FileChannel.MapMode.READ_ONLY, 0, idxChannel.size());
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        if (idx.getInt(0) != IDX_MAGIC || idx.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("not a version " + VERSION + " pack index: " + idxFile);
+        }
+        count = idx.getInt(8);
+    }
+
+    /** Returns the number of objects in this pack. */
+    int count() {
+        return count;
+    }
+
+    /** Returns the UID of the Ith object in sorted order. */
+    String id(int i) {
+        byte[] raw = new byte[UID_BYTES];
+        idx.get(UIDS + i * UID_BYTES, raw);
+        return uidFromBytes(raw, 0);
+    }
+
+    /** Returns the pack offset of the object whose raw UID is RAW, or -1 if
+     *  it is not in this pack. */
+    long offsetOf(byte[] raw) {
+        int first = raw[0] & 0xff;
+        int lo = first == 0 ? 0 : idx.getInt(HEADER + (first - 1) * 4);
+        int hi = idx.getInt(HEADER + first * 4) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareUid(UIDS + mid * UID_BYTES, raw);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return idx.getLong(UIDS + count * UID_BYTES + mid * 8);
+            }
+        }
+        return -1;
+    }
+
+    /** Compares the UID stored at POS in the index with RAW. */
+    private int compareUid(int pos, byte[] raw) {
+        for (int i = 0; i < UID_BYTES; i++) {
+            int cmp = Integer.compare(idx.get(pos + i) & 0xff, raw[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /** Returns the compressed record stored at OFFSET. */
+    byte[] readRecord(long offset) {
+        try {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(length, offset);
+            ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+            readFully(record, offset + 4);
+            return record.array();
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    private void readFully(ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            if (pack.read(buf, position + buf.position()) < 0) {
+                throw new IOException("truncated pack");
+            }
+        }
+    }
+
+    /** Closes the pack. */
+    void close() {
+        try {
+            pack.close();
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    /** Writes a pack PACKFILE and index IDXFILE holding the objects IDS,
+     *  which must be sorted. RECORDS gives the compressed record of each. */
+    static void write(File packFile, File idxFile, List<String> ids,
+                      Function<String, byte[]> records) {
+        long[] offsets = new long[ids.size()];
+        int[] fanout = new int[256];
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(packFile.toPath())))) {
+            out.writeInt(PACK_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ids.size());
+            long position = HEADER;
+            for (int i = 0; i < ids.size(); i++) {
+                byte[] record = records.apply(ids.get(i));
+                offsets[i] = position;
+                out.writeInt(record.length);
+                out.write(record);
+                position += 4 + record.length;
+                fanout[uidToBytes(ids.get(i))[0] & 0xff] += 1;
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+        for (int b = 1; b < 256; b++) {
+            fanout[b] += fanout[b - 1];
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(idxFile.toPath())))) {
+            out.writeInt(IDX_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ids.size());
+            for (int n : fanout) {
+                out.writeInt(n);
+            }
+            for (String id : ids) {
+                out.write(uidToBytes(id));
+            }
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+}
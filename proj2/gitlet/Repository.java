@@ -26,4 +26,51 @@ public class Repository {
     public static final File GITLET_DIR = join(CWD, ".gitlet");
 
     /* TODO: fill in the rest of this class. */
+
+    /** Prints the log of the commit HEAD and its first parents, newest
+     *  first, from the CommitGraph. */
+    static void log(String head) {
+        for (int pos = CommitGraph.find(head); pos != CommitGraph.NONE;
+             pos = CommitGraph.parent(pos, 0)) {
+            printLogEntry(pos);
+        }
+    }
+
+    /** Prints the log entry of every commit ever made, in no particular
+     *  order, from the CommitGraph. */
+    static void globalLog() {
+        for (int pos = 0; pos < CommitGraph.size(); pos++) {
+            printLogEntry(pos);
+        }
+    }
+
+    /** Returns the UID of the split point of the commits A and B, a latest
+     *  common ancestor of the two. */
+    static String splitPoint(String a, String b) {
+        return CommitGraph.id(CommitGraph.mergeBase(CommitGraph.find(a), CommitGraph.find(b)));
+    }
+
+    /** Prints the log entry of the commit at position POS in the
+     *  CommitGraph. */
+    private static void printLogEntry(int pos) {
+        System.out.println("===");
+        System.out.println("commit " + CommitGraph.id(pos));
+        int second = CommitGraph.parent(pos, 1);
+        if (second != CommitGraph.NONE) {
+            System.out.println("Merge: " + CommitGraph.id(CommitGraph.parent(pos, 0)).substring(0, 7)
+                               + " " + CommitGraph.id(second).substring(0, 7));
+        }
+        System.out.printf("Date: %ta %<tb %<te %<tT %<tY %<tz%n", CommitGraph.timestamp(pos));
+        System.out.println(CommitGraph.message(pos));
+        System.out.println();
+    }
+
+    /** Folds every stored object into a single pack (see ObjectStore). */
+    public static void gc() {
+        if (!GITLET_DIR.isDirectory()) {
+            message("Not in an initialized Gitlet directory.");
+            System.exit(0);
+        }
+        ObjectStore.repack();
+    }
 }
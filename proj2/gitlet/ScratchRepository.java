@@ -0,0 +1,42 @@
+package gitlet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.Assume;
+import org.junit.rules.ExternalResource;
+
+/** A JUnit rule that gives each test an empty .gitlet directory and
+ *  deletes it afterwards.
+ *
+ *  Repository.GITLET_DIR is fixed by the working directory when gitlet
+ *  starts, so the directory is made there. Maven runs the tests in
+ *  target/gitlet-test (see pom.xml). Run anywhere else, a test is skipped,
+ *  and nothing is touched, if a .gitlet directory is already there:
+ *  ExternalResource only calls after() once before() has succeeded, so
+ *  only a directory this rule made is ever deleted. */
+class ScratchRepository extends ExternalResource {
+
+    @Override
+    protected void before() {
+        Assume.assumeTrue(Repository.GITLET_DIR + " already exists",
+                          Repository.GITLET_DIR.mkdirs());
+        ObjectStore.closePacks();
+        CommitGraph.close();
+    }
+
+    @Override
+    protected void after() {
+        ObjectStore.closePacks();
+        CommitGraph.close();
+        try (Stream<Path> paths = Files.walk(Repository.GITLET_DIR.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package gitlet;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static gitlet.Utils.*;
+
+/** The files staged for the next commit: those added, with the UIDs of
+ *  their blobs, and those staged for removal. It is kept in FILE in the
+ *  same kind of versioned binary encoding as Commit.
+ */
+class StagingArea implements Dumpable {
+    /** Serializable only through Dumpable; saved with encode instead. */
+    private static final long serialVersionUID = 1L;
+
+    /** First byte of an encoded StagingArea. */
+    static final byte TAG = 'S';
+    /** Version of the encoding written by encode. */
+    static final int VERSION = 1;
+    /** Where the staging area is kept. */
+    static final File FILE = join(Repository.GITLET_DIR, "index");
+
+    /** Maps the name of each file staged for addition to its blob's UID. */
+    private final TreeMap<String, String> added = new TreeMap<>();
+    /** Names of the files staged for removal. */
+    private final TreeSet<String> removed = new TreeSet<>();
+
+    /** Returns the saved staging area, or an empty one if none is saved. */
+    static StagingArea load() {
+        return FILE.isFile() ? decode(readContents(FILE)) : new StagingArea();
+    }
+
+    /** Saves this staging area to FILE. */
+    void save() {
+        writeContents(FILE, encode());
+    }
+
+    /** Stages NAME, whose contents are the blob BLOBID, for addition. */
+    void add(String name, String blobId) {
+        removed.remove(name);
+        added.put(name, blobId);
+    }
+
+    /** Stages NAME for removal. */
+    void remove(String name) {
+        added.remove(name);
+        removed.add(name);
+    }
+
+    /** Drops NAME from the staging area. */
+    void unstage(String name) {
+        added.remove(name);
+        removed.remove(name);
+    }
+
+    /** Drops everything from the staging area. */
+    void clear() {
+        added.clear();
+        removed.clear();
+    }
+
+    boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    SortedMap<String, String> getAdded() {
+        return Collections.unmodifiableSortedMap(added);
+    }
+
+    SortedSet<String> getRemoved() {
+        return Collections.unmodifiableSortedSet(removed);
+    }
+
+    /** Returns this staging area encoded as TAG, the varint VERSION, the
+     *  varint number of added files and each name and blob UID, and the
+     *  varint number of removed files and each name. */
+    byte[] encode() {
+        ByteWriter out = new ByteWriter(16 + added.size() * 48 + removed.size() * 16);
+        out.writeByte(TAG);
+        out.writeVarint(VERSION);
+        out.writeVarint(added.size());
+        for (Map.Entry<String, String> entry : added.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeUid(entry.getValue());
+        }
+        out.writeVarint(removed.size());
+        for (String name : removed) {
+            out.writeString(name);
+        }
+        return out.toByteArray();
+    }
+
+    /** Returns the staging area encoded in DATA by encode. */
+    static StagingArea decode(byte[] data) {
+        ByteReader in = new ByteReader(data);
+        if (in.readByte() != TAG) {
+            throw new IllegalArgumentException("not an encoded staging area");
+        }
+        int version = in.readVarint();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported staging area version " + version);
+        }
+        StagingArea stage = new StagingArea();
+        int numAdded = in.readVarint();
+        for (int i = 0; i < numAdded; i++) {
+            String name = in.readString();
+            stage.added.put(name, in.readUid());
+        }
+        int numRemoved = in.readVarint();
+        for (int i = 0; i < numRemoved; i++) {
+            stage.removed.add(in.readString());
+        }
+        if (!in.atEnd()) {
+            throw new IllegalArgumentException("trailing bytes after staging area");
+        }
+        return stage;
+    }
+
+    @Override
+    public void dump() {
+        System.out.printf("added: %s%nremoved: %s%n", added, removed);
+    }
+}
@@ -0,0 +1,127 @@
+package gitlet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+
+/** Tests of CommitGraph, run in a .gitlet directory of their own. */
+public class TestCommitGraph {
+    private static final int N = 600;
+
+    /** The commits written, in order, and the indices of their parents. */
+    private final List<String> ids = new ArrayList<>();
+    private final List<int[]> parents = new ArrayList<>();
+
+    @Rule
+    public final ScratchRepository repo = new ScratchRepository();
+
+    /** Writes a random history of n commits in which about one in eight
+     *  is a merge, checking the whole graph every 50 commits, as layers
+     *  are merged and commits move to new positions. */
+    private void writeHistory(Random r, int n) {
+        for (int i = 0; i < n; i++) {
+            int[] ps;
+            if (i == 0) {
+                ps = new int[0];
+            } else if (i > 2 && r.nextInt(8) == 0) {
+                int a = i - 1 - r.nextInt(Math.min(i, 10));
+                int b = r.nextInt(i);
+                ps = a == b ? new int[] {a} : new int[] {a, b};
+            } else {
+                ps = new int[] {i - 1 - r.nextInt(Math.min(i, 3))};
+            }
+            List<String> parentIds = new ArrayList<>();
+            for (int p : ps) {
+                parentIds.add(ids.get(p));
+            }
+            Commit c = new Commit("commit " + i + " \u2713", 1000L * i + r.nextInt(1000), parentIds, Map.of());
+            ids.add(c.write());
+            parents.add(ps);
+            if (i % 50 == 49) {
+                checkGraph();
+            }
+        }
+    }
+
+    /** Checks every commit written so far against the graph. */
+    private void checkGraph() {
+        assertEquals(ids.size(), CommitGraph.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int pos = CommitGraph.find(ids.get(i));
+            assertEquals(ids.get(i), CommitGraph.id(pos));
+            Commit c = Commit.read(ids.get(i));
+            assertEquals(c.getMessage(), CommitGraph.message(pos));
+            assertEquals(c.getTimestamp(), CommitGraph.timestamp(pos));
+            int generation = 0;
+            for (int k = 0; k < 2; k++) {
+                int p = CommitGraph.parent(pos, k);
+                if (k < parents.get(i).length) {
+                    assertEquals(ids.get(parents.get(i)[k]), CommitGraph.id(p));
+                    generation = Math.max(generation, CommitGraph.generation(p));
+                } else {
+                    assertEquals(CommitGraph.NONE, p);
+                }
+            }
+            assertEquals(generation + 1, CommitGraph.generation(pos));
+        }
+    }
+
+    @Test
+    public void layersTest() {
+        writeHistory(new Random(7), N);
+        checkGraph();
+        int layers = Utils.readContentsAsString(CommitGraph.CHAIN).split("\n").length;
+        assertTrue("too many layers: " + layers, layers <= 11);
+        assertEquals(layers + 1, CommitGraph.GRAPH_DIR.list().length);
+
+        CommitGraph.close();
+        checkGraph();
+        assertEquals(CommitGraph.NONE, CommitGraph.find(Utils.sha1("not a commit")));
+    }
+
+    @Test
+    public void mergeBaseTest() {
+        Random r = new Random(11);
+        writeHistory(r, N);
+        for (int t = 0; t < 500; t++) {
+            int a = r.nextInt(N);
+            int b = r.nextInt(N);
+            Set<Integer> common = ancestors(a);
+            common.retainAll(ancestors(b));
+            String split = Repository.splitPoint(ids.get(a), ids.get(b));
+            int m = ids.indexOf(split);
+            assertTrue(common.contains(m));
+            for (int c : common) {
+                if (c != m) {
+                    assertFalse("split point is older than another common ancestor",
+                                ancestors(c).contains(m));
+                }
+            }
+        }
+        assertEquals(ids.get(5), Repository.splitPoint(ids.get(5), ids.get(5)));
+    }
+
+    /** Returns the indices of I and all its ancestors, by brute force. */
+    private Set<Integer> ancestors(int i) {
+        Set<Integer> seen = new HashSet<>();
+        Deque<Integer> todo = new ArrayDeque<>();
+        todo.push(i);
+        while (!todo.isEmpty()) {
+            int x = todo.pop();
+            if (seen.add(x)) {
+                for (int p : parents.get(x)) {
+                    todo.push(p);
+                }
+            }
+        }
+        return seen;
+    }
+}
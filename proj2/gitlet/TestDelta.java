@@ -0,0 +1,99 @@
+package gitlet;
+
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of Delta. */
+public class TestDelta {
+
+    @Test
+    public void roundTripTest() {
+        Random r = new Random(17);
+        for (int t = 0; t < 2000; t++) {
+            byte[] base = randomBytes(r, t % 10 == 0 ? r.nextInt(16) : r.nextInt(5000));
+            byte[] target = edit(r, base, r.nextInt(8));
+            checkRoundTrip(base, target);
+        }
+    }
+
+    @Test
+    public void edgeCasesTest() {
+        Random r = new Random(19);
+        byte[] data = randomBytes(r, 1000);
+        checkRoundTrip(new byte[0], new byte[0]);
+        checkRoundTrip(new byte[0], data);
+        checkRoundTrip(data, new byte[0]);
+        checkRoundTrip(data, Arrays.copyOf(data, 5));
+        checkRoundTrip(Arrays.copyOf(data, 5), data);
+        checkRoundTrip(data, data);
+        byte[] zeros = new byte[3000];
+        checkRoundTrip(zeros, Arrays.copyOf(zeros, 4000));
+    }
+
+    /* A few small edits of a large file should cost little more than the
+     * bytes inserted. */
+    @Test
+    public void smallDeltaTest() {
+        Random r = new Random(23);
+        byte[] base = randomBytes(r, 100000);
+        byte[] target = edit(r, base, 5);
+        byte[] delta = Delta.create(base, target);
+        assertTrue("delta of " + delta.length + " bytes", delta.length < 2000);
+        assertArrayEquals(target, Delta.apply(base, delta));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongBaseTest() {
+        byte[] delta = Delta.create(new byte[100], new byte[100]);
+        Delta.apply(new byte[99], delta);
+    }
+
+    private static void checkRoundTrip(byte[] base, byte[] target) {
+        assertArrayEquals(target, Delta.apply(base, Delta.create(base, target)));
+    }
+
+    /** Returns N random bytes drawn from a small alphabet, so that blocks
+     *  repeat and hash collisions between unequal blocks are exercised. */
+    static byte[] randomBytes(Random r, int n) {
+        byte[] data = new byte[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = (byte) ('a' + r.nextInt(r.nextBoolean() ? 4 : 26));
+        }
+        return data;
+    }
+
+    /** Returns DATA with EDITS random inserts, deletes and overwrites. */
+    static byte[] edit(Random r, byte[] data, int edits) {
+        for (int e = 0; e < edits; e++) {
+            int at = r.nextInt(data.length + 1);
+            int length = r.nextInt(40);
+            switch (r.nextInt(3)) {
+                case 0: {
+                    byte[] out = new byte[data.length + length];
+                    System.arraycopy(data, 0, out, 0, at);
+                    System.arraycopy(randomBytes(r, length), 0, out, at, length);
+                    System.arraycopy(data, at, out, at + length, data.length - at);
+                    data = out;
+                    break;
+                }
+                case 1: {
+                    length = Math.min(length, data.length - at);
+                    byte[] out = new byte[data.length - length];
+                    System.arraycopy(data, 0, out, 0, at);
+                    System.arraycopy(data, at + length, out, at, data.length - at - length);
+                    data = out;
+                    break;
+                }
+                default: {
+                    data = data.clone();
+                    for (int i = at; i < Math.min(data.length, at + length); i++) {
+                        data[i] = (byte) r.nextInt(256);
+                    }
+                }
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,147 @@
+package gitlet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the binary encodings of Commit and StagingArea. */
+public class TestEncoding {
+    private static final String A = Utils.sha1("a");
+    private static final String B = Utils.sha1("b");
+
+    @Test
+    public void initialCommitTest() {
+        Commit c = new Commit("initial commit", 0, Collections.emptyList(),
+                              Collections.emptyMap());
+        checkRoundTrip(c);
+    }
+
+    @Test
+    public void mergeCommitTest() {
+        Map<String, String> blobs = new TreeMap<>();
+        blobs.put("a.txt", A);
+        blobs.put("dir/b.txt", B);
+        Commit c = new Commit("Merged other into master.", 1700000000000L,
+                              Arrays.asList(A, B), blobs);
+        checkRoundTrip(c);
+    }
+
+    @Test
+    public void nonAsciiTest() {
+        Map<String, String> blobs = new TreeMap<>();
+        blobs.put("caf\u00e9.txt", A);
+        blobs.put("\u65e5\u672c\u8a9e.md", B);
+        blobs.put("\ud83c\udfb8.wav", A);
+        Commit c = new Commit("na\u00efve r\u00e9sum\u00e9 \u2713 \ud83d\ude00", 42,
+                              Collections.singletonList(B), blobs);
+        checkRoundTrip(c);
+    }
+
+    @Test
+    public void largeTimestampTest() {
+        for (long t : new long[] {Long.MAX_VALUE, 1L << 62, 253402300799999L}) {
+            Commit c = new Commit("far future", t, Collections.singletonList(A),
+                                  Collections.emptyMap());
+            checkRoundTrip(c);
+        }
+    }
+
+    @Test
+    public void stagingAreaTest() {
+        StagingArea empty = StagingArea.decode(new StagingArea().encode());
+        assertTrue(empty.isEmpty());
+
+        StagingArea stage = new StagingArea();
+        stage.add("a.txt", A);
+        stage.add("caf\u00e9.txt", B);
+        stage.remove("old.txt");
+        stage.remove("\u65e5\u672c.txt");
+        StagingArea copy = StagingArea.decode(stage.encode());
+        assertEquals(stage.getAdded(), copy.getAdded());
+        assertEquals(stage.getRemoved(), copy.getRemoved());
+        assertArrayEquals(stage.encode(), copy.encode());
+    }
+
+    @Test
+    public void badTagTest() {
+        byte[] commit = sampleCommit().encode();
+        byte[] stage = sampleStage().encode();
+        assertRejected(() -> Commit.decode(stage));
+        assertRejected(() -> StagingArea.decode(commit));
+        commit[0] = 'X';
+        assertRejected(() -> Commit.decode(commit));
+    }
+
+    @Test
+    public void unknownVersionTest() {
+        byte[] commit = sampleCommit().encode();
+        byte[] stage = sampleStage().encode();
+        commit[1] = (byte) (Commit.VERSION + 1);
+        stage[1] = (byte) (StagingArea.VERSION + 1);
+        assertRejected(() -> Commit.decode(commit));
+        assertRejected(() -> StagingArea.decode(stage));
+    }
+
+    /* Every proper prefix of an encoding is rejected rather than decoded
+     * into something shorter. */
+    @Test
+    public void truncatedTest() {
+        byte[] commit = sampleCommit().encode();
+        byte[] stage = sampleStage().encode();
+        for (int n = 0; n < commit.length; n++) {
+            byte[] prefix = Arrays.copyOf(commit, n);
+            assertRejected(() -> Commit.decode(prefix));
+        }
+        for (int n = 0; n < stage.length; n++) {
+            byte[] prefix = Arrays.copyOf(stage, n);
+            assertRejected(() -> StagingArea.decode(prefix));
+        }
+    }
+
+    @Test
+    public void trailingBytesTest() {
+        byte[] commit = sampleCommit().encode();
+        byte[] stage = sampleStage().encode();
+        assertRejected(() -> Commit.decode(Arrays.copyOf(commit, commit.length + 1)));
+        assertRejected(() -> StagingArea.decode(Arrays.copyOf(stage, stage.length + 1)));
+    }
+
+    /** Returns a merge commit tracking two files. */
+    static Commit sampleCommit() {
+        Map<String, String> blobs = new TreeMap<>();
+        blobs.put("a.txt", A);
+        blobs.put("b.txt", B);
+        return new Commit("sample", 1234567890123L, Arrays.asList(A, B), blobs);
+    }
+
+    /** Returns a staging area with one file added and one removed. */
+    private static StagingArea sampleStage() {
+        StagingArea stage = new StagingArea();
+        stage.add("a.txt", A);
+        stage.remove("b.txt");
+        return stage;
+    }
+
+    /** Checks that C decodes to a commit with the same fields and encoding. */
+    private static void checkRoundTrip(Commit c) {
+        Commit copy = Commit.decode(c.encode());
+        assertEquals(c.getMessage(), copy.getMessage());
+        assertEquals(c.getTimestamp(), copy.getTimestamp());
+        assertEquals(c.getParents(), copy.getParents());
+        assertEquals(c.getBlobs(), copy.getBlobs());
+        assertArrayEquals(c.encode(), copy.encode());
+    }
+
+    /** Checks that DECODE throws IllegalArgumentException. */
+    private static void assertRejected(Runnable decode) {
+        try {
+            decode.run();
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException excp) {
+            return;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package gitlet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+
+/** Tests of ObjectStore and PackFile, each run in a ScratchRepository. */
+public class TestObjectStore {
+    private static final int N = 500;
+
+    @Rule
+    public final ScratchRepository repo = new ScratchRepository();
+
+    @Test
+    public void repackTest() {
+        Random r = new Random(3);
+        List<byte[]> contents = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < N; i++) {
+            byte[] data = new byte[r.nextInt(2000)];
+            r.nextBytes(data);
+            contents.add(data);
+            ids.add(ObjectStore.write(data));
+            assertEquals(Utils.sha1(data), ids.get(i));
+        }
+        assertEquals(ids.get(0), ObjectStore.write(contents.get(0)));
+        checkAll(ids, contents);
+        assertTrue(looseFiles() > 0);
+
+        assertEquals(N, ObjectStore.repack());
+        assertEquals(0, looseFiles());
+        String firstPack = onlyPack();
+        checkAll(ids, contents);
+        ObjectStore.closePacks();
+        checkAll(ids, contents);
+
+        byte[] extra = "one more object".getBytes();
+        contents.add(extra);
+        ids.add(ObjectStore.write(extra));
+        assertEquals(1, looseFiles());
+        checkAll(ids, contents);
+
+        assertEquals(N + 1, ObjectStore.repack());
+        assertEquals(0, looseFiles());
+        assertNotEquals(firstPack, onlyPack());
+        checkAll(ids, contents);
+
+        assertEquals(N + 1, ObjectStore.repack());
+        assertEquals(0, looseFiles());
+        checkAll(ids, contents);
+    }
+
+    @Test
+    public void emptyRepackTest() {
+        assertEquals(0, ObjectStore.repack());
+        assertFalse(ObjectStore.contains(Utils.sha1("missing")));
+    }
+
+    /* Hashing a file through the stream buffer gives the same UID as
+     * hashing its contents, whether or not it fills the buffer exactly. */
+    @Test
+    public void sha1FileTest() {
+        Random r = new Random(23);
+        File file = Utils.join(Repository.GITLET_DIR, "hashed");
+        int buf = Utils.STREAM_BUFFER;
+        for (int size : new int[] {0, 1, buf - 1, buf, buf + 1, 3 * buf + 17}) {
+            byte[] data = new byte[size];
+            r.nextBytes(data);
+            Utils.writeContents(file, data);
+            assertEquals("size " + size, Utils.sha1(Utils.readContents(file)), Utils.sha1(file));
+        }
+    }
+
+    /* A file over STREAM_THRESHOLD is stored whole under the UID of its
+     * contents, and storing it again leaves no temporary file behind. */
+    @Test
+    public void streamedBlobTest() {
+        byte[] data = new byte[(int) ObjectStore.STREAM_THRESHOLD + 1000];
+        new Random(31).nextBytes(data);
+        File file = Utils.join(Repository.GITLET_DIR, "big.bin");
+        Utils.writeContents(file, data);
+        String id = ObjectStore.writeBlob("big.bin", file);
+        assertEquals(Utils.sha1(data), id);
+        File loose = Utils.join(ObjectStore.OBJECTS_DIR, id.substring(0, 2), id.substring(2));
+        assertTrue(loose.isFile());
+        assertArrayEquals(data, ObjectStore.read(id));
+
+        assertEquals(id, ObjectStore.writeBlob("big.bin", file));
+        String[] temps = ObjectStore.OBJECTS_DIR.list((dir, name) -> name.startsWith("incoming"));
+        assertEquals(0, temps.length);
+        assertArrayEquals(data, ObjectStore.read(id));
+    }
+
+    /* DumpObj reads an encoded Commit back out of its loose object file. */
+    @Test
+    public void dumpLooseObjectTest() {
+        Commit c = TestEncoding.sampleCommit();
+        String id = ObjectStore.write(c.encode());
+        File loose = Utils.join(ObjectStore.OBJECTS_DIR, id.substring(0, 2), id.substring(2));
+        assertTrue(loose.isFile());
+        Dumpable obj = DumpObj.read(loose);
+        assertTrue(obj instanceof Commit);
+        assertArrayEquals(c.encode(), ((Commit) obj).encode());
+    }
+
+    /* Successive versions of one file are stored as deltas of depth 1 to
+     * MAX_DEPTH, then whole again, and all read back. */
+    @Test
+    public void maxDepthTest() {
+        Random r = new Random(29);
+        int versions = 2 * (ObjectStore.MAX_DEPTH + 1) + 1;
+        byte[][] contents = new byte[versions][];
+        String[] ids = new String[versions];
+        contents[0] = TestDelta.randomBytes(r, 4000);
+        for (int v = 0; v < versions; v++) {
+            if (v > 0) {
+                do {
+                    contents[v] = TestDelta.edit(r, contents[v - 1], 1);
+                } while (Arrays.equals(contents[v], contents[v - 1]));
+            }
+            ids[v] = ObjectStore.writeBlob("notes.txt", contents[v]);
+            byte[] record = ObjectStore.inflate(Utils.readContents(
+                Utils.join(ObjectStore.OBJECTS_DIR, ids[v].substring(0, 2), ids[v].substring(2))));
+            int depth = v % (ObjectStore.MAX_DEPTH + 1);
+            if (depth == 0) {
+                assertEquals("version " + v, ObjectStore.FULL, record[0]);
+            } else {
+                assertEquals("version " + v, ObjectStore.DELTA, record[0]);
+                assertEquals("version " + v, depth, record[1]);
+            }
+        }
+        for (int v = 0; v < versions; v++) {
+            assertArrayEquals(contents[v], ObjectStore.read(ids[v]));
+        }
+        ObjectStore.repack();
+        for (int v = 0; v < versions; v++) {
+            assertArrayEquals(contents[v], ObjectStore.read(ids[v]));
+        }
+    }
+
+    /** Checks that each of IDS is stored with the matching CONTENTS, and
+     *  that objects next to them in UID order are not. */
+    private static void checkAll(List<String> ids, List<byte[]> contents) {
+        for (int i = 0; i < ids.size(); i++) {
+            assertTrue(ObjectStore.contains(ids.get(i)));
+            assertArrayEquals(contents.get(i), ObjectStore.read(ids.get(i)));
+            for (String near : neighbours(ids.get(i))) {
+                assertEquals(ids.contains(near), ObjectStore.contains(near));
+            }
+        }
+    }
+
+    /** Returns the UIDs that differ from ID by one in the last byte, which
+     *  share its first byte, and so its fan-out slice. */
+    private static List<String> neighbours(String id) {
+        byte[] raw = Utils.uidToBytes(id);
+        List<String> result = new ArrayList<>();
+        for (int delta : new int[] {-1, 1}) {
+            byte[] near = Arrays.copyOf(raw, raw.length);
+            near[near.length - 1] += delta;
+            result.add(Utils.uidFromBytes(near, 0));
+        }
+        return result;
+    }
+
+    /** Returns the number of loose object files and directories. */
+    private static int looseFiles() {
+        int count = 0;
+        for (String name : ObjectStore.OBJECTS_DIR.list()) {
+            File dir = Utils.join(ObjectStore.OBJECTS_DIR, name);
+            if (name.length() == 2) {
+                count += Math.max(1, dir.list().length);
+            } else {
+                assertTrue(name + " left in objects", name.equals("pack"));
+            }
+        }
+        return count;
+    }
+
+    /** Returns the base name of the only pack, checking that it has an index
+     *  and that nothing else is in PACK_DIR. */
+    private static String onlyPack() {
+        String[] names = ObjectStore.PACK_DIR.list();
+        Arrays.sort(names);
+        assertEquals(Arrays.toString(names), 2, names.length);
+        String base = names[0].substring(0, names[0].length() - ".idx".length());
+        assertEquals(base + ".idx", names[0]);
+        assertEquals(base + ".pack", names[1]);
+        return base;
+    }
+}
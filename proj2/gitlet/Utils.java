@@ -6,8 +6,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -63,6 +65,67 @@ class Utils {
         return sha1(vals.toArray(new Object[vals.size()]));
     }
 
+    /** Size of the buffer through which sha1Copy reads files. */
+    static final int STREAM_BUFFER = 64 * 1024;
+
+    /** Returns the SHA-1 hash of the contents of FILE, the same as
+     *  sha1(readContents(FILE)), without reading them all into memory. */
+    static String sha1(File file) {
+        return sha1Copy(file, null);
+    }
+
+    /** Reads FILE once through a buffer of STREAM_BUFFER bytes, copying its
+     *  contents to OUT unless OUT is null, and returns their SHA-1 hash.
+     *  Memory use does not depend on the size of FILE.  Throws
+     *  IllegalArgumentException in case of problems. */
+    static String sha1Copy(File file, OutputStream out) {
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("must be a normal file");
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] buf = new byte[STREAM_BUFFER];
+            for (int n = in.read(buf); n >= 0; n = in.read(buf)) {
+                md.update(buf, 0, n);
+                if (out != null) {
+                    out.write(buf, 0, n);
+                }
+            }
+            return uidFromBytes(md.digest(), 0);
+        } catch (IOException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        } catch (NoSuchAlgorithmException excp) {
+            throw new IllegalArgumentException("System does not support SHA-1");
+        }
+    }
+
+    /** The length of a SHA-1 UID in bytes. */
+    static final int UID_BYTES = 20;
+
+    /** Returns the UID_BYTES raw bytes of the hexadecimal SHA-1 UID ID. */
+    static byte[] uidToBytes(String id) {
+        if (id.length() != UID_LENGTH) {
+            throw new IllegalArgumentException("not a full SHA-1 UID: " + id);
+        }
+        byte[] raw = new byte[UID_BYTES];
+        for (int i = 0; i < UID_BYTES; i++) {
+            raw[i] = (byte) Integer.parseInt(id.substring(2 * i, 2 * i + 2), 16);
+        }
+        return raw;
+    }
+
+    /** Returns the hexadecimal SHA-1 UID whose raw bytes are RAW[OFFSET ..
+     *  OFFSET + UID_BYTES). */
+    static String uidFromBytes(byte[] raw, int offset) {
+        char[] hex = new char[UID_LENGTH];
+        for (int i = 0; i < UID_BYTES; i++) {
+            int b = raw[offset + i] & 0xff;
+            hex[2 * i] = Character.forDigit(b >>> 4, 16);
+            hex[2 * i + 1] = Character.forDigit(b & 0xf, 16);
+        }
+        return new String(hex);
+    }
+
     /* FILE DELETION */
 
     /** Deletes FILE if it exists and is not a directory.  Returns true
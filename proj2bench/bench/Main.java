@@ -0,0 +1,31 @@
+package bench;
+
+import gitlet.CommitBenchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the commit decoding benchmark with allocation profiling (-prof gc),
+ * writes the results as JSON and then prints how large each encoding of the
+ * history is. ARGS are passed through as ordinary JMH command line options.
+ */
+public class Main {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opts = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CommitBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("commit-bench.json")
+                .build();
+        new Runner(opts).run();
+        CommitBenchmark.printSizes();
+    }
+}
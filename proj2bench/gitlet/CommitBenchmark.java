@@ -0,0 +1,130 @@
+package gitlet;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decoding a whole history of commits, as log does, in Commit's
+ * binary encoding and with the Java serialization it replaced. The history
+ * is a chain of commits commits, with a merge every 50, each tracking files
+ * files of which one changes per commit. It lives in package gitlet, as
+ * Commit's encoding is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class CommitBenchmark {
+    @Param({"binary", "serialized"})
+    public String format;
+
+    @Param({"100000"})
+    public int commits;
+
+    @Param({"20"})
+    public int files;
+
+    private byte[][] history;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        history = encode(format, history(commits, files));
+    }
+
+    /** Decode every commit in the history. */
+    @Benchmark
+    public int decodeHistory() {
+        int tracked = 0;
+        for (byte[] data : history) {
+            tracked += decode(format, data).getBlobs().size();
+        }
+        return tracked;
+    }
+
+    /** Prints the total and per-commit size of the default history in each format. */
+    public static void printSizes() {
+        List<Commit> history = history(100000, 20);
+        System.out.printf("%n%-12s %14s %14s%n", "format", "bytes", "bytes/commit");
+        for (String format : new String[] {"binary", "serialized"}) {
+            long total = 0;
+            for (byte[] data : encode(format, history)) {
+                total += data.length;
+            }
+            System.out.printf("%-12s %14d %14.1f%n", format, total, (double) total / history.size());
+        }
+    }
+
+    /** Returns a history of N commits, each tracking FILES files. */
+    static List<Commit> history(int n, int files) {
+        Random r = new Random(42);
+        TreeMap<String, String> blobs = new TreeMap<>();
+        for (int f = 0; f < files; f++) {
+            blobs.put("src/module" + f + "/File" + f + ".java", randomUid(r));
+        }
+        List<String> names = new ArrayList<>(blobs.keySet());
+        List<Commit> history = new ArrayList<>(n);
+        List<String> ids = new ArrayList<>(n);
+        long time = 1600000000000L;
+        for (int i = 0; i < n; i++) {
+            List<String> parents = new ArrayList<>();
+            if (i > 0) {
+                parents.add(ids.get(i - 1));
+            }
+            if (i >= 50 && i % 50 == 0) {
+                parents.add(ids.get(i - 1 - r.nextInt(49)));
+            }
+            blobs.put(names.get(r.nextInt(files)), randomUid(r));
+            time += r.nextInt(3600000);
+            Commit c = new Commit("Change " + i + ": update module " + r.nextInt(files), time, parents, blobs);
+            history.add(c);
+            ids.add(Utils.sha1(c.encode()));
+        }
+        return history;
+    }
+
+    private static byte[][] encode(String format, List<Commit> history) {
+        byte[][] result = new byte[history.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = format.equals("binary") ? history.get(i).encode() : Utils.serialize(history.get(i));
+        }
+        return result;
+    }
+
+    private static Commit decode(String format, byte[] data) {
+        if (format.equals("binary")) {
+            return Commit.decode(data);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (Commit) in.readObject();
+        } catch (IOException | ClassNotFoundException excp) {
+            throw new IllegalArgumentException(excp.getMessage());
+        }
+    }
+
+    private static String randomUid(Random r) {
+        byte[] raw = new byte[Utils.UID_BYTES];
+        r.nextBytes(raw);
+        return Utils.uidFromBytes(raw, 0);
+    }
+}